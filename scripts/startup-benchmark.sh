@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+# 기동 시간 측정 : 프로세스 시작부터 첫 요청(/members?size=1)이 200을 받을 때까지
+#
+# 사용법 : scripts/startup-benchmark.sh [반복 횟수]
+#   먼저 빌드 : ./gradlew bootJar          ( jar )
+#              ./gradlew cdsArchive -Paot  ( AOT + CDS, build/cds )
+#   RECORD_STARTUP=1 : 기동 단계별 기록을 켜고 /actuator/startup 결과를 build/startup/ 에 저장한다.
+#                      ( 기록 비용이 측정값에 포함되므로 시간 비교와 따로 돌린다. )
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+RECORD_STARTUP=${RECORD_STARTUP:-0}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+JAR=$(ls "$ROOT"/build/libs/*-SNAPSHOT.jar 2>/dev/null | grep -v plain | head -n 1 || true)
+CDS_DIR="$ROOT/build/cds"
+
+now_ms() {
+  date +%s%3N
+}
+
+RECORD_JVM_ARGS=()
+RECORD_APP_ARGS=()
+if [[ "$RECORD_STARTUP" == "1" ]]; then
+  RECORD_JVM_ARGS=(-Dapp.startup.recording=true)
+  RECORD_APP_ARGS=(--management.endpoints.web.exposure.include=health,metrics,startup)
+  mkdir -p "$ROOT/build/startup"
+fi
+
+# $1 : 이름, $2.. : 실행 명령 ( java 다음에 기록용 JVM 옵션을 넣는다. )
+measure() {
+  local name=$1
+  shift
+  local java=$1
+  shift
+  local total=0
+  for ((i = 1; i <= RUNS; i++)); do
+    local start
+    start=$(now_ms)
+    "$java" ${RECORD_JVM_ARGS[@]+"${RECORD_JVM_ARGS[@]}"} "$@" --server.port="$PORT" ${RECORD_APP_ARGS[@]+"${RECORD_APP_ARGS[@]}"} > /dev/null 2>&1 &
+    local pid=$!
+    until curl -sf "http://localhost:$PORT/members?size=1" > /dev/null; do
+      if ! kill -0 "$pid" 2> /dev/null; then
+        echo "$name : 기동 실패" >&2
+        return 1
+      fi
+      sleep 0.05
+    done
+    local elapsed=$(($(now_ms) - start))
+    total=$((total + elapsed))
+    if [[ "$RECORD_STARTUP" == "1" ]]; then
+      curl -sf "http://localhost:$PORT/actuator/startup" > "$ROOT/build/startup/${name// /_}-$i.json" || true
+    fi
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$name #$i : ${elapsed}ms"
+  done
+  echo "$name 평균 : $((total / RUNS))ms"
+}
+
+if [[ -n "$JAR" ]]; then
+  measure "jar" java -jar "$JAR"
+  measure "jar + fast-startup" java -jar "$JAR" --spring.profiles.active=fast-startup
+fi
+
+if [[ -f "$CDS_DIR/application.jsa" ]]; then
+  CDS_JAR=$(ls "$CDS_DIR"/*.jar | head -n 1)
+  AOT_FLAG=""
+  if unzip -l "$CDS_JAR" | grep -q '__ApplicationContextInitializer'; then
+    AOT_FLAG="-Dspring.aot.enabled=true"
+  fi
+  measure "cds ${AOT_FLAG:++ aot }+ fast-startup" \
+    java -XX:SharedArchiveFile="$CDS_DIR/application.jsa" $AOT_FLAG -jar "$CDS_JAR" --spring.profiles.active=fast-startup
+fi
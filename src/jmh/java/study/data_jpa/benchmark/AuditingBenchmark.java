@@ -0,0 +1,78 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/***
+ * 회원/팀 배치 저장 시 Auditing 비용 비교
+ * - fast : AuditingStampListener ( 필드 직접 세팅, 시간은 flush 당 한 번, 등록자는 트랜잭션 당 한 번 )
+ * - spring : 스프링 데이터의 AuditingHandler ( 엔티티마다 리플렉션, 등록자 조회 )
+ * ./gradlew jmh -Pjmh.includes=AuditingBenchmark
+ */
+@State(Scope.Benchmark)
+public class AuditingBenchmark {
+
+    private static final int TEAM_COUNT = 10;
+
+    @Param({"fast", "spring"})
+    public String mode;
+
+    @Param({"1000"})
+    public int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TeamRepository teamRepository;
+    private TransactionTemplate write;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("auditing" + mode, "app.auditing.mode=" + mode);
+        memberRepository = context.getBean(MemberRepository.class);
+        teamRepository = context.getBean(TeamRepository.class);
+        write = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Member> batchInsert() {
+        return write.execute(status -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < TEAM_COUNT; i++) {
+                teams.add(new Team("team" + i));
+            }
+            teamRepository.saveAll(teams);
+
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < memberCount; i++) {
+                members.add(new Member("member" + i, i % 100, teams.get(i % TEAM_COUNT)));
+            }
+            return memberRepository.saveAllBatched(members);
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * 회원 대량 저장 처리량 ( 결과 단위 : rows/sec )
+ * - saveOneByOne : 예전 MemberController.init 처럼 행마다 save() ( 행마다 트랜잭션, insert 1번씩 )
+ * - saveAll : 한 트랜잭션에서 saveAll() ( 영속성 컨텍스트에 모두 쌓은 뒤 커밋 시 flush )
+ * - saveAllBatched : batch_size 마다 flush/clear ( JDBC batch insert )
+ * ./gradlew jmh -Pjmh.includes=BatchInsertBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchInsertBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TeamRepository teamRepository;
+    private TransactionTemplate write;
+    private Team team;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("batchInsert");
+        memberRepository = context.getBean(MemberRepository.class);
+        teamRepository = context.getBean(TeamRepository.class);
+        write = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        team = teamRepository.save(new Team("teamA"));
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveOneByOne() {
+        for (Member member : members()) {
+            memberRepository.save(member);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Member> saveAll() {
+        return write.execute(status -> memberRepository.saveAll(members()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Member> saveAllBatched() {
+        return memberRepository.saveAllBatched(members());
+    }
+
+    private List<Member> members() {
+        // 준영속 팀의 members 컬렉션이 호출마다 쌓이지 않게 비운다.
+        team.getMembers().clear();
+        List<Member> members = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            members.add(new Member("member" + i, i % 100, team));
+        }
+        return members;
+    }
+}
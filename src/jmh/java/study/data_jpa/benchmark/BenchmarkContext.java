@@ -0,0 +1,33 @@
+package study.data_jpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.data_jpa.DataJpaApplication;
+
+/***
+ * 벤치마크용 스프링 컨텍스트
+ * 웹 서버 없이 띄우고, SQL 로그가 측정값을 왜곡하지 않도록 로그를 끈다.
+ * 벤치마크마다 별도의 H2 메모리 DB를 사용한다.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName, String... properties) {
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:" + databaseName,
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "logging.level.root=warn",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "logging.level.org.hibernate.orm.jdbc.bind=warn",
+                        "mybatis.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl"
+                )
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,110 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * 한 회원의 나이를 여러 스레드가 동시에 1씩 올릴 때 비관적 락과 낙관적 락( + 재시도 ) 비교
+ * - pessimistic : findLockByUsername ( select ... for update )
+ * - optimistic : updateWithRetry ( @Version, 충돌 시 backoff 후 재시도 )
+ * 한 번의 측정은 threads 개의 스레드가 각각 한 번씩 수정하는 시간이다.
+ * 재시도를 모두 소진한 수정은 보조 카운터( optimisticLockFailures )로 세서 측정 반복마다 처리량 옆에 나온다. ( 워밍업 제외 )
+ * ./gradlew jmh -Pjmh.includes=LockContentionBenchmark
+ */
+@State(Scope.Benchmark)
+public class LockContentionBenchmark {
+
+    private static final String USERNAME = "hot-member";
+
+    @Param({"pessimistic", "optimistic"})
+    public String mode;
+
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate write;
+    private ExecutorService executor;
+    private Long memberId;
+
+    // 반복(iteration)마다 새로 센다.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+        public long optimisticLockFailures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            optimisticLockFailures = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("lock" + mode + threads, "spring.datasource.hikari.maximum-pool-size=" + (threads + 2));
+        memberRepository = context.getBean(MemberRepository.class);
+        write = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        memberId = write.execute(status -> memberRepository.save(new Member(USERNAME, 0, null))).getId();
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public int increment(Failures failures) throws Exception {
+        List<Future<Boolean>> futures = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(this::incrementOnce));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                succeeded++;
+            } else {
+                failures.optimisticLockFailures++;
+            }
+        }
+        return succeeded;
+    }
+
+    private boolean incrementOnce() {
+        if ("pessimistic".equals(mode)) {
+            write.executeWithoutResult(status -> {
+                Member member = memberRepository.findLockByUsername(USERNAME).get(0);
+                member.setAge(member.getAge() + 1);
+            });
+            return true;
+        }
+        try {
+            memberRepository.updateWithRetry(memberId, member -> member.setAge(member.getAge() + 1));
+            return true;
+        } catch (OptimisticLockingFailureException e) {
+            return false;
+        }
+    }
+}
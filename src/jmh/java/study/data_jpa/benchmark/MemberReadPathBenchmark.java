@@ -0,0 +1,119 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.dto.MemberDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+import study.data_jpa.repository.projections.MemberProjection;
+import study.data_jpa.repository.projections.UsernameOnly;
+import study.data_jpa.repository.projections.UsernameOnlyDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/***
+ * 같은 회원 데이터를 읽는 경로별 비교
+ * - 엔티티 + EntityGraph / DTO 생성자 프로젝션 / 인터페이스 프로젝션 / 네이티브 프로젝션 / QueryDSL 사용자 정의 / MyBatis
+ * 처리량(thrpt), 평균 지연(avgt), 할당량(-prof gc 의 gc.alloc.rate.norm)을 함께 본다.
+ */
+@State(Scope.Benchmark)
+public class MemberReadPathBenchmark {
+
+    private static final int TEAM_COUNT = 10;
+
+    @Param({"100", "1000", "10000"})
+    public int memberCount;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("readPath" + memberCount);
+        memberRepository = context.getBean(MemberRepository.class);
+        TeamRepository teamRepository = context.getBean(TeamRepository.class);
+
+        TransactionTemplate write = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        write.executeWithoutResult(status -> {
+            List<Team> teams = new ArrayList<>();
+            for (int i = 0; i < TEAM_COUNT; i++) {
+                teams.add(teamRepository.save(new Team("team" + i)));
+            }
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < memberCount; i++) {
+                members.add(new Member("member" + i, i % 100, teams.get(i % TEAM_COUNT)));
+            }
+            memberRepository.saveAllBatched(members);
+        });
+
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 엔티티를 읽어서 DTO로 변환하는 경로 ( 컨트롤러에서 흔히 쓰는 방식 )
+    @Benchmark
+    public List<MemberDto> entityGraph() {
+        return readOnly.execute(status -> memberRepository.findAll().stream().map(MemberDto::new).toList());
+    }
+
+    // /members 페이지 : 엔티티 페이징 후 DTO 변환 vs DTO 직접 페이징
+    @Benchmark
+    public Page<MemberDto> entityPage() {
+        return readOnly.execute(status -> memberRepository.findAll(PageRequest.of(0, 20)).map(MemberDto::new));
+    }
+
+    @Benchmark
+    public Page<MemberDto> dtoPage() {
+        return readOnly.execute(status -> memberRepository.findMemberDtoPage(PageRequest.of(0, 20)));
+    }
+
+    @Benchmark
+    public List<MemberDto> constructorProjection() {
+        return readOnly.execute(status -> memberRepository.findMemberDto());
+    }
+
+    @Benchmark
+    public Page<MemberProjection> nativeInterfaceProjection() {
+        return readOnly.execute(status -> memberRepository.findByNativeProjection(PageRequest.of(0, memberCount)));
+    }
+
+    @Benchmark
+    public List<Member> queryDslCustom() {
+        return readOnly.execute(status -> memberRepository.findMemberQueryDSLCustom());
+    }
+
+    @Benchmark
+    public List<Member> mybatisCustom() {
+        return readOnly.execute(status -> memberRepository.findMemberMybatisCustom());
+    }
+
+    // 단건 조회 : 오픈 프로젝션(SpEL) vs 클래스 프로젝션
+    @Benchmark
+    public List<UsernameOnly> openInterfaceProjectionByUsername() {
+        return readOnly.execute(status -> memberRepository.findProjectionsByUsername("member" + (memberCount / 2)));
+    }
+
+    @Benchmark
+    public List<UsernameOnlyDto> classProjectionByUsername() {
+        return readOnly.execute(status -> memberRepository.findProjections2ByUsername("member" + (memberCount / 2)));
+    }
+}
@@ -0,0 +1,91 @@
+package study.data_jpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.projections.UsernameAndAge;
+import study.data_jpa.repository.projections.UsernameOnly;
+import study.data_jpa.repository.projections.UsernameOnlyDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/***
+ * 프로젝션 방식별 조회 + 값 읽기 비용
+ * - openProjection : UsernameOnly ( 엔티티 전체 조회, 게터 호출마다 SpEL 실행 )
+ * - closedProjectionWithDefaultMethod : UsernameAndAge ( username, age 컬럼만 조회, 일반 메소드로 조합 )
+ * - classProjection : UsernameOnlyDto ( username 컬럼만 조회, 생성자 )
+ * 프록시 게터는 호출할 때 비용이 드는 것이라 결과를 모두 읽는다.
+ * 오픈 프로젝션의 SpEL 은 프록시(행)마다 새로 파싱되어 spring.expression.compiler.mode 를 켜도 컴파일 임계치에 닿지 않는다.
+ * 조합된 값이 필요하면 SpEL 컴파일에 기대지 말고 closedProjectionWithDefaultMethod 쪽을 쓴다.
+ * ./gradlew jmh -Pjmh.includes=ProjectionBenchmark
+ */
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private static final String USERNAME = "member";
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private MemberRepository memberRepository;
+    private TransactionTemplate readOnly;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("projection" + rows);
+        memberRepository = context.getBean(MemberRepository.class);
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            members.add(new Member(USERNAME, i % 100, null));
+        }
+        memberRepository.saveAllBatched(members);
+
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void openProjection(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            for (UsernameOnly projection : memberRepository.findProjectionsByUsername(USERNAME)) {
+                blackhole.consume(projection.getUsername());
+            }
+        });
+    }
+
+    @Benchmark
+    public void closedProjectionWithDefaultMethod(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            for (UsernameAndAge projection : memberRepository.findUsernameAndAgeByUsername(USERNAME)) {
+                blackhole.consume(projection.getUsernameAndAge());
+            }
+        });
+    }
+
+    @Benchmark
+    public void classProjection(Blackhole blackhole) {
+        readOnly.executeWithoutResult(status -> {
+            for (UsernameOnlyDto projection : memberRepository.findProjections2ByUsername(USERNAME)) {
+                blackhole.consume(projection.getUsername());
+            }
+        });
+    }
+}
@@ -2,10 +2,12 @@ package study.data_jpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import study.data_jpa.audit.TransactionScopedAuditorAware;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -15,12 +17,19 @@ import java.util.UUID;
 public class DataJpaApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(DataJpaApplication.class, args);
+		SpringApplication application = new SpringApplication(DataJpaApplication.class);
+		// 기동 단계별 소요 시간 기록 ( /actuator/startup ) : -Dapp.startup.recording=true
+		// 기록 자체도 비용이 있기 때문에 분석할 때만 켠다. ( scripts/startup-benchmark.sh 의 RECORD_STARTUP=1 )
+		if (Boolean.getBoolean("app.startup.recording")) {
+			application.setApplicationStartup(new BufferingApplicationStartup(2048));
+		}
+		application.run(args);
 	}
 
 	@Bean
 	public AuditorAware<String> auditorProvider() {
 		// Security context에서 가져와서 아이디를 넣으면 된다.
-		return () -> Optional.of(UUID.randomUUID().toString());
+		// 트랜잭션 당 한 번만 조회한다. ( TransactionScopedAuditorAware )
+		return new TransactionScopedAuditorAware(() -> Optional.of(UUID.randomUUID().toString()));
 	}
 }
@@ -0,0 +1,27 @@
+package study.data_jpa.audit;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+// flush( 명시적 flush, 커밋, 쿼리 전 자동 flush )가 끝나면 Auditing 시간을 다시 구하게 한다. ( FlushTime )
+// META-INF/services/org.hibernate.integrator.spi.Integrator 로 등록한다.
+public class AuditingFlushIntegrator implements Integrator {
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.FLUSH, (FlushEventListener) event -> FlushTime.reset());
+        registry.appendListeners(EventType.AUTO_FLUSH, (AutoFlushEventListener) event -> FlushTime.reset());
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
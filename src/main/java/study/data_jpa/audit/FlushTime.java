@@ -0,0 +1,26 @@
+package study.data_jpa.audit;
+
+import java.time.LocalDateTime;
+
+/***
+ * flush 단위 Auditing 시간
+ * 같은 flush 로 저장/수정되는 엔티티는 같은 시간을 쓰고, flush 가 끝나면 다음 flush 를 위해 다시 구한다. ( AuditingFlushIntegrator )
+ * - @PrePersist 는 persist() 시점, @PreUpdate 는 flush 중에 호출되기 때문에
+ *   이전 flush 이후 저장한 엔티티와 이번 flush 에서 수정되는 엔티티가 같은 시간을 갖는다.
+ * 트랜잭션 밖에서는 매번 구한다.
+ */
+public final class FlushTime {
+
+    private static final TransactionScopedValue<LocalDateTime> NOW = new TransactionScopedValue<>(LocalDateTime::now);
+
+    private FlushTime() {
+    }
+
+    public static LocalDateTime now() {
+        return NOW.get();
+    }
+
+    static void reset() {
+        NOW.reset();
+    }
+}
@@ -0,0 +1,24 @@
+package study.data_jpa.audit;
+
+import org.springframework.data.domain.AuditorAware;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/***
+ * 등록자/수정자를 트랜잭션 당 한 번만 조회하는 AuditorAware
+ * 엔티티 수천 개를 한 트랜잭션에서 저장해도 Security context 조회( 지금은 UUID 생성 )는 한 번만 일어난다.
+ */
+public class TransactionScopedAuditorAware implements AuditorAware<String> {
+
+    private final TransactionScopedValue<Optional<String>> auditor;
+
+    public TransactionScopedAuditorAware(Supplier<Optional<String>> auditor) {
+        this.auditor = new TransactionScopedValue<>(auditor);
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        return auditor.get();
+    }
+}
@@ -0,0 +1,59 @@
+package study.data_jpa.audit;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/***
+ * 트랜잭션 동안 한 번만 계산하는 값
+ * 트랜잭션 동기화가 켜져 있으면 값을 담을 홀더를 트랜잭션 리소스로 한 번만 묶어두고, 트랜잭션이 끝나면 풀어준다.
+ * 트랜잭션 밖에서는 매번 계산한다.
+ * reset() 하면 같은 트랜잭션에서도 다음 get() 때 다시 계산한다. ( FlushTime 참조 )
+ * - 홀더의 값만 비우기 때문에 flush 마다 reset() 해도 동기화가 다시 등록되지 않는다.
+ */
+public final class TransactionScopedValue<T> {
+
+    private final Supplier<T> supplier;
+
+    public TransactionScopedValue(Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+
+    public T get() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return supplier.get();
+        }
+        Holder<T> holder = holder();
+        if (holder == null) {
+            holder = new Holder<>();
+            TransactionSynchronizationManager.bindResource(this, holder);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedValue.this);
+                }
+            });
+        }
+        if (holder.value == null) {
+            holder.value = supplier.get();
+        }
+        return holder.value;
+    }
+
+    public void reset() {
+        Holder<T> holder = holder();
+        if (holder != null) {
+            holder.value = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Holder<T> holder() {
+        return (Holder<T>) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private static final class Holder<T> {
+        private T value;
+    }
+}
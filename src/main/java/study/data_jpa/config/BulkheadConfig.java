@@ -0,0 +1,23 @@
+package study.data_jpa.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.data_jpa.web.DatabaseBulkheadFilter;
+
+import java.time.Duration;
+
+// 가상 스레드 사용 시에만 DB 벌크헤드를 건다. ( 플랫폼 스레드에서는 톰캣 스레드 풀이 동시 요청 수를 제한한다. )
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class BulkheadConfig {
+
+    @Bean
+    public DatabaseBulkheadFilter databaseBulkheadFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${app.bulkhead.acquire-timeout:2s}") Duration acquireTimeout) {
+        return new DatabaseBulkheadFilter(maximumPoolSize, acquireTimeout);
+    }
+}
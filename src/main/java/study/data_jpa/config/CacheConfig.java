@@ -0,0 +1,67 @@
+package study.data_jpa.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.data_jpa.repository.MemberRepositoryCountImpl;
+
+import java.time.Duration;
+import java.util.Collection;
+
+// 캐시 설정은 application.yml 의 spring.cache 참조
+@EnableCaching
+@Configuration
+public class CacheConfig {
+
+    // count 캐시는 회원 캐시와 만료 시간을 따로 둔다. ( 변경 감지로 바뀐 건수는 만료될 때까지 반영되지 않는다. )
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> memberCountsCacheCustomizer(
+            @Value("${app.cache.member-counts.ttl:30s}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache(MemberRepositoryCountImpl.CACHE_NAME,
+                Caffeine.newBuilder()
+                        .maximumSize(1000)
+                        .expireAfterWrite(ttl)
+                        .build());
+    }
+
+    // count 캐시의 put/evict/clear 는 트랜잭션 커밋 후에 반영한다. ( get(key, loader) 와 invalidate() 는 바로 반영 )
+    // 커밋 전에 지우면 다른 요청이 아직 커밋되지 않은(이전) 건수로 캐시를 다시 채울 수 있고, 롤백되면 지울 필요가 없다.
+    // 회원 캐시( members )는 그대로 둔다.
+    @Bean
+    public static BeanPostProcessor memberCountsTransactionAwarePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof CaffeineCacheManager cacheManager) {
+                    return new MemberCountsTransactionAwareCacheManager(cacheManager);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private record MemberCountsTransactionAwareCacheManager(CacheManager target) implements CacheManager {
+
+        @Override
+        public Cache getCache(String name) {
+            Cache cache = target.getCache(name);
+            if (cache != null && MemberRepositoryCountImpl.CACHE_NAME.equals(name)) {
+                return new TransactionAwareCacheDecorator(cache);
+            }
+            return cache;
+        }
+
+        @Override
+        public Collection<String> getCacheNames() {
+            return target.getCacheNames();
+        }
+    }
+}
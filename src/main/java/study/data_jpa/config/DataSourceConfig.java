@@ -0,0 +1,79 @@
+package study.data_jpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.data_jpa.datasource.DataSourceType;
+import study.data_jpa.datasource.H2ReplicaLinkedTables;
+import study.data_jpa.datasource.ReplicationRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/***
+ * 읽기/쓰기 분리 ( app.datasource.routing.enabled=true, 기본 off / replica 프로필 참조 )
+ * primary 는 spring.datasource, replica 는 app.datasource.replica 설정을 사용한다.
+ * JPA, MyBatis 모두 @Primary 인 dataSource 를 사용하기 때문에 별도 설정 없이 라우팅된다.
+ * OSIV(spring.jpa.open-in-view)가 켜져 있으면 시작하지 않는다.
+ * - OSIV 는 요청 동안 영속성 컨텍스트를 유지하고, 하이버네이트는 처음 얻은 커넥션을 영속성 컨텍스트가 닫힐 때까지 잡고 있는다.
+ * - 요청의 첫 트랜잭션이 읽기 전용이면 이후 쓰기 트랜잭션도 리플리카 커넥션으로 나가게 된다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 @Value("${app.datasource.routing.read-your-writes-window:0ms}") Duration readYourWritesWindow,
+                                 @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException("읽기/쓰기 분리를 사용하려면 spring.jpa.open-in-view=false 로 설정해야 합니다.");
+        }
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(readYourWritesWindow);
+        routingDataSource.setTargetDataSources(Map.of(
+                DataSourceType.PRIMARY, primaryDataSource,
+                DataSourceType.REPLICA, replicaDataSource
+        ));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // 로컬 H2 리플리카 ( primary 테이블을 읽기 전용 링크 테이블로 연결 )
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.h2-linked-tables", havingValue = "true")
+    public H2ReplicaLinkedTables h2ReplicaLinkedTables(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                       DataSourceProperties properties,
+                                                       @Value("${app.datasource.replica.url}") String replicaUrl) {
+        return new H2ReplicaLinkedTables(primaryDataSource, properties.determineUrl(), replicaUrl,
+                properties.determineUsername(), properties.determinePassword());
+    }
+}
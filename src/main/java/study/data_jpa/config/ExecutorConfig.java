@@ -0,0 +1,68 @@
+package study.data_jpa.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    private static final int PAGING_CONCURRENCY = 4;
+
+    // 애플리케이션 공용 실행기 ( MVC 비동기 요청, @Async, JPA 지연 부트스트랩 )
+    // 스프링 부트의 applicationTaskExecutor 는 Executor 빈이 하나라도 있으면 만들어지지 않는다. ( @ConditionalOnMissingBean(Executor.class) )
+    // pagingExecutor 를 등록하면 위 작업들이 페이징 전용 풀(동시 실행 4개)에서 돌게 되므로, 부트와 같은 설정(spring.task.execution.*)으로 직접 등록한다.
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    // 병렬 페이징 전용 스레드 풀
+    // 공용 ForkJoinPool을 쓰면 다른 작업과 스레드를 나눠 쓰고, DB 커넥션 수와 무관하게 작업이 몰릴 수 있다.
+    // 스레드 수와 큐를 제한하고, 큐가 가득 차면 호출한 스레드에서 실행하도록 해서 커넥션 풀이 고갈되지 않게 한다.
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor pagingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(PAGING_CONCURRENCY);
+        executor.setMaxPoolSize(PAGING_CONCURRENCY);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("paging-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // 가상 스레드 사용 시 ( spring.threads.virtual.enabled=true, 자바 21 )
+    // 가상 스레드는 풀링하지 않고 작업마다 만든다. 대신 동시 실행 수를 제한해서 커넥션 풀이 고갈되지 않게 한다.
+    @Bean(name = "pagingExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public TaskExecutor pagingVirtualExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("paging-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(PAGING_CONCURRENCY);
+        return executor;
+    }
+}
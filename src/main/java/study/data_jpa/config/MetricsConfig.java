@@ -0,0 +1,68 @@
+package study.data_jpa.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import study.data_jpa.metrics.EndpointTags;
+import study.data_jpa.metrics.EntityLoadMetricsIntegrator;
+import study.data_jpa.metrics.JdbcMetricsSessionEventListener;
+import study.data_jpa.metrics.RequestJdbcMetricsFilter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/***
+ * 메트릭 ( /actuator/metrics )
+ * - spring.data.repository.invocations : 스프링 데이터 레포지토리(MemberRepository, TeamRepository) 메소드별 타이머
+ * - jpa.repository.invocations : 순수 JPA 레포지토리(@Timed) 메소드별 타이머
+ * - http.server.requests.jdbc.* : 요청 당 SQL 수, 엔티티 로딩 수, 커넥션 획득 시간 ( RequestJdbcMetricsFilter )
+ * - hibernate.*, hikaricp.* : 하이버네이트 통계, 커넥션 풀 ( 스프링 부트 자동 설정 )
+ * 레포지토리 타이머에도 호출한 엔드포인트(uri) 태그를 붙인다.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcMetricsHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, JdbcMetricsSessionEventListener.class.getName());
+            properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(new EntityLoadMetricsIntegrator()));
+        };
+    }
+
+    @Bean
+    public RequestJdbcMetricsFilter requestJdbcMetricsFilter(MeterRegistry meterRegistry) {
+        return new RequestJdbcMetricsFilter(meterRegistry);
+    }
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        return new DefaultRepositoryTagsProvider() {
+            @Override
+            public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+                return Tags.of(super.repositoryTags(invocation)).and(EndpointTags.uri());
+            }
+        };
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        Function<ProceedingJoinPoint, Iterable<Tag>> tags = joinPoint -> Tags.of(
+                Tag.of("class", joinPoint.getStaticPart().getSignature().getDeclaringTypeName()),
+                Tag.of("method", joinPoint.getStaticPart().getSignature().getName()),
+                EndpointTags.uri()
+        );
+        return new TimedAspect(meterRegistry, tags);
+    }
+}
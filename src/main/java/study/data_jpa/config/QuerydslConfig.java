@@ -0,0 +1,22 @@
+package study.data_jpa.config;
+
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QuerydslConfig {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // 트랜잭션마다 알맞은 EntityManager로 위임하는 공유 EntityManager를 넘기기 때문에 싱글톤으로 써도 된다.
+    // 하이버네이트 6에서는 HQLTemplates 대신 JPQLTemplates를 쓴다. ( transform 등 호환 문제 )
+    @Bean
+    public JPAQueryFactory jpaQueryFactory() {
+        return new JPAQueryFactory(JPQLTemplates.DEFAULT, em);
+    }
+}
@@ -0,0 +1,34 @@
+package study.data_jpa.controller;
+
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import study.data_jpa.dto.InvalidCursorException;
+import study.data_jpa.repository.UnsupportedSortException;
+
+/***
+ * 사용자 입력(커서, 정렬 조건)이 잘못된 경우 500 대신 400으로 응답한다.
+ * IllegalArgumentException 전체를 잡으면 서버 버그도 400이 되기 때문에 입력 검증용 예외만 등록한다.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail invalidCursor(InvalidCursorException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    // 화이트리스트에 없는 정렬 ( /members/search, 네이티브 쿼리 )
+    @ExceptionHandler(UnsupportedSortException.class)
+    public ProblemDetail unsupportedSort(UnsupportedSortException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    // 엔티티에 없는 정렬 속성 ( 스프링 데이터 JPA 쿼리 메소드, ex. /members?sort=unknown )
+    @ExceptionHandler(PropertyReferenceException.class)
+    public ProblemDetail unknownProperty(PropertyReferenceException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
@@ -2,26 +2,43 @@ package study.data_jpa.controller;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import study.data_jpa.dto.MemberCursor;
 import study.data_jpa.dto.MemberDto;
+import study.data_jpa.dto.MemberSearchCondition;
+import study.data_jpa.dto.MemberTeamDto;
+import study.data_jpa.dto.ScrollResult;
 import study.data_jpa.entity.Member;
 import study.data_jpa.repository.MemberRepository;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    // application.yml 의 max-page-size 와 맞춘다.
+    private static final int MAX_SCROLL_SIZE = 2000;
+
     private final MemberRepository memberRepository;
 
+    // 캐시된 DTO를 먼저 보고, 없을 때만 DB를 조회한다.
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+        return memberRepository.findMemberDtoById(id)
+                .map(MemberDto::getUsername)
+                .orElseThrow();
     }
 
     // 도메인 클래스 컨버터 ( 실무팁: 조회용으로만 써야 한다. )
@@ -38,22 +55,58 @@ public class MemberController {
     // 별도 메소드에 설정하고 싶다면? members2를 참조 :: 당연히 개별 설정이 우선권을 갖는다.
     @GetMapping("/members")
     public Page<MemberDto> list(Pageable pageable) {
-        Page<Member> member = memberRepository.findAll(pageable);
-        Page<MemberDto> result = member.map(MemberDto::new);
-        return result;
+        // 엔티티를 조회 후 DTO로 변환하면 팀 지연 로딩 쿼리가 추가로 나가기 때문에 처음부터 DTO로 조회한다.
+        return memberRepository.findMemberDtoPage(pageable);
+    }
+
+    // 전체 건수가 대략적이어도 되는 경우 : /members/estimated?page=0&size=20
+    // 전체 건수는 캐시된 추정치를 쓰기 때문에 페이지를 넘길 때 쿼리가 1번만 나간다. ( totalElements 는 정확하지 않을 수 있다. )
+    @GetMapping("/members/estimated")
+    public Page<MemberDto> listEstimated(Pageable pageable) {
+        return memberRepository.findMemberDtoPageCachedCount(pageable);
+    }
+
+    // 동적 검색 : /members/search?username=member1&ageGoe=10&ageLoe=30&teamName=teamA&createdFrom=2024-01-01T00:00:00&page=0&size=20
+    @GetMapping("/members/search")
+    public Page<MemberTeamDto> search(MemberSearchCondition condition, Pageable pageable) {
+        return memberRepository.search(condition, pageable);
     }
 
     @GetMapping("/members2")
     public Page<MemberDto> list2(@PageableDefault(size = 5, sort = "username") Pageable pageable) {
-        Page<Member> member = memberRepository.findAll(pageable);
-        Page<MemberDto> result = member.map(MemberDto::new);
-        return result;
+        return memberRepository.findMemberDtoPage(pageable);
+    }
+
+    // 키셋 페이징 : /members/scroll?size=10 으로 시작해서 응답의 nextCursor를 /members/scroll?cursor=... 로 넘긴다.
+    // offset, count 쿼리가 없기 때문에 10,000번째 페이지도 첫 페이지와 비용이 같다.
+    @GetMapping("/members/scroll")
+    public ScrollResult<MemberDto> scroll(@RequestParam(value = "cursor", required = false) String cursor,
+                                          @RequestParam(value = "size", defaultValue = "10") int size) {
+        return scroll(cursor, size, Sort.by("id"));
+    }
+
+    @GetMapping("/members2/scroll")
+    public ScrollResult<MemberDto> scroll2(@RequestParam(value = "cursor", required = false) String cursor,
+                                           @RequestParam(value = "size", defaultValue = "5") int size) {
+        return scroll(cursor, size, Sort.by("username", "id"));
+    }
+
+    private ScrollResult<MemberDto> scroll(String cursor, int size, Sort sort) {
+        // 잘못된 커서, 다른 엔드포인트(정렬)의 커서는 400 ( ApiExceptionHandler )
+        ScrollPosition position = cursor == null ? ScrollPosition.keyset() : MemberCursor.decode(cursor, sort);
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_SCROLL_SIZE)));
+
+        Window<Member> window = memberRepository.findAllBy(position, sort, limit);
+        String nextCursor = window.hasNext() ? MemberCursor.encode(window.positionAt(window.size() - 1)) : null;
+        return new ScrollResult<>(window.map(MemberDto::new).getContent(), nextCursor, window.hasNext());
     }
 
     // @PostConstruct
     public void init() {
+        List<Member> members = new ArrayList<>();
         for(int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("member" + i, i, null));
+            members.add(new Member("member" + i, i, null));
         }
+        memberRepository.saveAllBatched(members);
     }
 }
@@ -0,0 +1,49 @@
+package study.data_jpa.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class StatisticsController {
+
+    private final EntityManagerFactory emf;
+
+    // 2차 캐시 / 쿼리 캐시 hit, miss, put 통계
+    @GetMapping("/stats/cache")
+    public Map<String, Object> cache() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, hitMissPut(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelCache", hitMissPut(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", hitMissPut(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        result.put("regions", regions);
+        return result;
+    }
+
+    private Map<String, Long> hitMissPut(long hit, long miss, long put) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("hit", hit);
+        counts.put("miss", miss);
+        counts.put("put", put);
+        return counts;
+    }
+}
@@ -0,0 +1,26 @@
+package study.data_jpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.data_jpa.dto.TeamDto;
+import study.data_jpa.repository.TeamRepository;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+
+    // 팀 + 소속 회원 목록
+    // 컬렉션(xxToMany)을 fetch join 하면서 페이징하면 데이터가 뻥튀기 되어 DB가 아닌 메모리에서 페이징한다. (경고 로그 + 전체 로딩)
+    // 팀만 페이징하고 회원은 지연 로딩 + default_batch_fetch_size 로 페이지에 있는 팀의 회원을 IN 절로 한 번에 가져온다.
+    // 팀 50개를 조회해도 쿼리는 팀 1번 + count 1번 + 회원 1번
+    @GetMapping("/teams")
+    public Page<TeamDto> list(@PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        return teamRepository.findAll(pageable).map(TeamDto::new);
+    }
+}
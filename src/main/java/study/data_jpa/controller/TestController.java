@@ -1,22 +1,71 @@
 package study.data_jpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
 import study.data_jpa.repository.MemberJpaRepository;
 import study.data_jpa.repository.MemberRepository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RestController
 @RequiredArgsConstructor
 public class TestController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int EXPORT_CLEAR_SIZE = 1000;
+
     private final MemberJpaRepository memberJpaRepository;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/all")
     public List<Member> all () {
         return memberJpaRepository.findAll();
     }
+
+    // 전체 회원 export ( 한 줄에 회원 1명씩 JSON )
+    // List로 모아서 반환하지 않고 조회하는 즉시 응답에 써서 회원 수와 상관없이 힙 사용량이 일정하다.
+    // getWriter()는 소켓 쓰기 실패(클라이언트 연결 끊김)를 삼키고 에러 플래그만 세우기 때문에 끝까지 조회하게 된다.
+    // OutputStream 에 쓰면 실패가 IOException 으로 올라와서 조회를 멈추고 커넥션을 바로 반납한다.
+    // 청크( EXPORT_CLEAR_SIZE )마다 flush 해서 적어도 청크마다 한 번은 소켓에 쓴다.
+    @GetMapping(value = "/members/export", produces = NDJSON)
+    public void export(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        ServletOutputStream out = response.getOutputStream();
+        AtomicLong rows = new AtomicLong();
+
+        try (SequenceWriter writer = objectMapper.writerFor(MemberDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            memberJpaRepository.streamAll(EXPORT_CLEAR_SIZE, member -> {
+                try {
+                    writer.write(new MemberDto(member));
+                    if (rows.incrementAndGet() % EXPORT_CLEAR_SIZE == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            // 구분자는 값 사이에만 들어가므로 마지막 줄의 개행은 직접 쓴다.
+            if (rows.get() > 0) {
+                writer.flush();
+                out.write('\n');
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
 }
@@ -0,0 +1,5 @@
+package study.data_jpa.datasource;
+
+public enum DataSourceType {
+    PRIMARY, REPLICA
+}
@@ -0,0 +1,62 @@
+package study.data_jpa.datasource;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/***
+ * 로컬용 리플리카 ( H2 )
+ * H2 에는 복제 기능이 없기 때문에 primary 와 별개인 H2 DB(replica)에 primary 테이블을 읽기 전용 링크 테이블로 만든다.
+ * ( CREATE LINKED TABLE ... READONLY )
+ * - 리플리카 커넥션으로는 primary 데이터를 읽을 수만 있고, 리플리카로 잘못 라우팅된 쓰기는 실패한다.
+ * - 복제 지연은 없다.
+ * primary 스키마는 하이버네이트(ddl-auto)가 만들기 때문에 싱글톤 빈이 모두 만들어진 뒤에 연결한다.
+ */
+public class H2ReplicaLinkedTables implements SmartInitializingSingleton {
+
+    private final DataSource primaryDataSource;
+    private final String primaryUrl;
+    private final String replicaUrl;
+    private final String username;
+    private final String password;
+
+    public H2ReplicaLinkedTables(DataSource primaryDataSource, String primaryUrl, String replicaUrl,
+                                 String username, String password) {
+        this.primaryDataSource = primaryDataSource;
+        this.primaryUrl = primaryUrl;
+        this.replicaUrl = replicaUrl;
+        this.username = username;
+        this.password = password == null ? "" : password;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> tables = new JdbcTemplate(primaryDataSource).queryForList(
+                "select table_name from information_schema.tables where table_schema = 'PUBLIC' and table_type = 'BASE TABLE'",
+                String.class);
+
+        // 리플리카 풀은 읽기 전용이기 때문에 별도 커넥션으로 만든다.
+        try (Connection connection = DriverManager.getConnection(replicaUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            for (String table : tables) {
+                // 이전 컨텍스트가 만든 링크 테이블은 컬럼 정보가 다를 수 있으므로 다시 만든다.
+                statement.execute("drop table if exists \"" + table + "\"");
+                statement.execute("create linked table \"" + table + "\"('org.h2.Driver', "
+                        + literal(primaryUrl) + ", " + literal(username) + ", " + literal(password) + ", 'PUBLIC', "
+                        + literal(table) + ") readonly");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("리플리카 링크 테이블을 만들지 못했습니다. url = " + replicaUrl, e);
+        }
+    }
+
+    private static String literal(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+}
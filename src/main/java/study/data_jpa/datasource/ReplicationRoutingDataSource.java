@@ -0,0 +1,50 @@
+package study.data_jpa.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/***
+ * 읽기/쓰기 분리 DataSource
+ * - @Transactional(readOnly = true) 인 트랜잭션은 REPLICA, 나머지는 PRIMARY 로 보낸다.
+ * - 트랜잭션의 readOnly 여부는 트랜잭션 시작 후에 정해지기 때문에 반드시 LazyConnectionDataSourceProxy 로 감싸서
+ *   실제 커넥션이 필요한 시점(첫 쿼리)에 라우팅되도록 해야 한다.
+ * - read-your-writes : 쓰기 트랜잭션 후 readYourWritesWindow 동안은 같은 스레드(요청)의 읽기도 PRIMARY 로 보낸다.
+ *   ( 리플리카의 복제 지연 때문에 방금 쓴 데이터가 안 보이는 문제를 막는다. )
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Long> LAST_WRITE_NANOS = new ThreadLocal<>();
+
+    private final long readYourWritesWindowNanos;
+
+    public ReplicationRoutingDataSource(Duration readYourWritesWindow) {
+        this.readYourWritesWindowNanos = readYourWritesWindow.toNanos();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !recentlyWritten()) {
+            return DataSourceType.REPLICA;
+        }
+        if (readYourWritesWindowNanos > 0
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            LAST_WRITE_NANOS.set(System.nanoTime());
+        }
+        return DataSourceType.PRIMARY;
+    }
+
+    private boolean recentlyWritten() {
+        Long lastWrite = LAST_WRITE_NANOS.get();
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < readYourWritesWindowNanos) {
+            return true;
+        }
+        LAST_WRITE_NANOS.remove();
+        return false;
+    }
+}
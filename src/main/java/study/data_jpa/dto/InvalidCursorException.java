@@ -0,0 +1,13 @@
+package study.data_jpa.dto;
+
+// 디코딩할 수 없거나 다른 정렬 기준으로 발급된 커서 ( 400 Bad Request )
+public class InvalidCursorException extends IllegalArgumentException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
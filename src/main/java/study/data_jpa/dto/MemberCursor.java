@@ -0,0 +1,96 @@
+package study.data_jpa.dto;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/***
+ * Member 키셋 페이징 커서
+ * 클라이언트에게는 (username, id) 값을 그대로 노출하지 않고 Base64로 인코딩한 불투명한 문자열만 내려준다.
+ * 커서에는 키 이름(정렬 기준)도 함께 담아서, 다른 정렬로 발급된 커서를 넘기면 거부한다.
+ */
+public final class MemberCursor {
+
+    private static final String USERNAME = "username";
+    private static final String ID = "id";
+
+    private MemberCursor() {
+    }
+
+    public static String encode(ScrollPosition position) {
+        Map<String, ?> keys = ((KeysetScrollPosition) position).getKeys();
+        if (keys.get(ID) == null) {
+            throw new IllegalArgumentException("키셋 커서에는 id가 필요합니다. keys = " + keys.keySet());
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(keys.size());
+            for (Map.Entry<String, ?> key : keys.entrySet()) {
+                out.writeUTF(key.getKey());
+                switch (key.getKey()) {
+                    case ID -> out.writeLong(((Number) key.getValue()).longValue());
+                    case USERNAME -> {
+                        out.writeBoolean(key.getValue() != null);
+                        if (key.getValue() != null) {
+                            out.writeUTF((String) key.getValue());
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("커서에 담을 수 없는 키입니다. key = " + key.getKey());
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    // sort : 커서를 사용할 조회의 정렬 ( 커서의 키 이름과 같아야 한다. )
+    public static ScrollPosition decode(String cursor, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            int size = in.readUnsignedByte();
+            for (int i = 0; i < size; i++) {
+                String name = in.readUTF();
+                switch (name) {
+                    case ID -> keys.put(ID, in.readLong());
+                    case USERNAME -> keys.put(USERNAME, in.readBoolean() ? in.readUTF() : null);
+                    default -> throw new InvalidCursorException("잘못된 커서입니다. cursor = " + cursor);
+                }
+            }
+            if (in.available() > 0) {
+                throw new InvalidCursorException("잘못된 커서입니다. cursor = " + cursor);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            if (e instanceof InvalidCursorException invalid) {
+                throw invalid;
+            }
+            throw new InvalidCursorException("잘못된 커서입니다. cursor = " + cursor, e);
+        }
+
+        Set<String> expected = keyNames(sort);
+        if (!expected.equals(keys.keySet())) {
+            throw new InvalidCursorException("정렬 기준이 다른 커서입니다. expected = " + expected + ", cursor = " + keys.keySet());
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    // 키셋 스크롤은 정렬 기준에 id를 더해서 위치를 만든다. ( 키 순서는 정렬 순서와 다를 수 있다. )
+    private static Set<String> keyNames(Sort sort) {
+        Set<String> names = new HashSet<>();
+        sort.forEach(order -> names.add(order.getProperty()));
+        names.add(ID);
+        return names;
+    }
+}
@@ -0,0 +1,22 @@
+package study.data_jpa.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// 회원 검색 조건 ( 값이 없는 조건은 무시한다. )
+@Data
+public class MemberSearchCondition {
+    private String username;
+    private Integer ageGoe;
+    private Integer ageLoe;
+    private String teamName;
+
+    // 등록일 범위 : createdFrom <= createdDate < createdTo
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+}
@@ -0,0 +1,27 @@
+package study.data_jpa.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// 회원 검색 결과 ( QueryDSL이 생성자로 필요한 컬럼만 조회해서 만든다. )
+@Data
+public class MemberTeamDto {
+    private Long memberId;
+    private String username;
+    private int age;
+    private Long teamId;
+    private String teamName;
+    private LocalDateTime createdDate;
+
+    @QueryProjection
+    public MemberTeamDto(Long memberId, String username, int age, Long teamId, String teamName, LocalDateTime createdDate) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.createdDate = createdDate;
+    }
+}
@@ -0,0 +1,15 @@
+package study.data_jpa.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 키셋 페이징 응답 ( count 없이 다음 페이지를 읽을 커서만 내려준다. )
+@Getter
+@AllArgsConstructor
+public class ScrollResult<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
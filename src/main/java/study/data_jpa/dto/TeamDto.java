@@ -0,0 +1,24 @@
+package study.data_jpa.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import study.data_jpa.entity.Team;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class TeamDto {
+    private Long id;
+    private String name;
+    private List<MemberDto> members;
+
+    // 회원 컬렉션은 지연 로딩되며, default_batch_fetch_size 만큼 여러 팀의 회원을 한 번에 가져온다.
+    public TeamDto(Team team) {
+        this.id = team.getId();
+        this.name = team.getName();
+        this.members = team.getMembers().stream()
+                .map(MemberDto::new)
+                .toList();
+    }
+}
@@ -0,0 +1,66 @@
+package study.data_jpa.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.domain.AuditorAware;
+import study.data_jpa.audit.FlushTime;
+
+/***
+ * BaseTimeEntity / BaseEntity 전용 Auditing 리스너
+ * AuditingEntityListener는 엔티티마다 리플렉션으로 @CreatedDate 등의 필드를 찾아서 값을 넣는다.
+ * 이 리스너는 필드를 직접 세팅하고, 시간은 flush 당 한 번, 등록자는 트랜잭션 당 한 번만 구한다.
+ * ( 같은 flush 로 저장/수정되는 엔티티는 같은 시간이 찍힌다. FlushTime 참조 )
+ *
+ * 하이버네이트가 스프링 빈 컨테이너로 생성하므로 생성자 주입을 받을 수 있다.
+ * app.auditing.mode=spring 이면 기존처럼 스프링 데이터의 AuditingHandler로 처리한다. ( 비교용 )
+ */
+public class AuditingStampListener {
+
+    private final ObjectProvider<AuditorAware<String>> auditorAware;
+    private final ObjectProvider<AuditingHandler> auditingHandler;
+    private final boolean fast;
+
+    public AuditingStampListener(ObjectProvider<AuditorAware<String>> auditorAware,
+                                 ObjectProvider<AuditingHandler> auditingHandler,
+                                 @Value("${app.auditing.mode:fast}") String mode) {
+        this.auditorAware = auditorAware;
+        this.auditingHandler = auditingHandler;
+        this.fast = !"spring".equalsIgnoreCase(mode);
+    }
+
+    @PrePersist
+    public void touchForCreate(Object target) {
+        if (!fast) {
+            auditingHandler.getObject().markCreated(target);
+            return;
+        }
+        if (target instanceof BaseTimeEntity entity) {
+            entity.stampCreated(FlushTime.now());
+        }
+        if (target instanceof BaseEntity entity) {
+            entity.stampCreatedBy(currentAuditor());
+        }
+    }
+
+    @PreUpdate
+    public void touchForUpdate(Object target) {
+        if (!fast) {
+            auditingHandler.getObject().markModified(target);
+            return;
+        }
+        if (target instanceof BaseTimeEntity entity) {
+            entity.stampModified(FlushTime.now());
+        }
+        if (target instanceof BaseEntity entity) {
+            entity.stampModifiedBy(currentAuditor());
+        }
+    }
+
+    private String currentAuditor() {
+        AuditorAware<String> aware = auditorAware.getIfAvailable();
+        return aware == null ? null : aware.getCurrentAuditor().orElse(null);
+    }
+}
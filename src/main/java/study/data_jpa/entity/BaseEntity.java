@@ -2,20 +2,18 @@ package study.data_jpa.entity;
 
 
 import jakarta.persistence.Column;
-import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 
 @Getter
 @MappedSuperclass
-@EntityListeners(AuditingEntityListener.class)
 public class BaseEntity extends BaseTimeEntity {
 
     @CreatedBy
@@ -25,4 +23,19 @@ public class BaseEntity extends BaseTimeEntity {
     @LastModifiedBy
     private String lastModifiedBy;
 
+    // 낙관적 락 ( 수정 시 where version = ? 으로 확인하고 1 증가시킨다. )
+    // JPA 밖에서 insert/update 하는 경우( MyBatis, 벌크 연산 )에는 직접 0으로 넣거나 증가시켜야 한다.
+    @Version
+    private Long version;
+
+    // 리스너는 BaseTimeEntity에 등록되어 있다. ( AuditingStampListener )
+    void stampCreatedBy(String auditor) {
+        this.createdBy = auditor;
+        this.lastModifiedBy = auditor;
+    }
+
+    void stampModifiedBy(String auditor) {
+        this.lastModifiedBy = auditor;
+    }
+
 }
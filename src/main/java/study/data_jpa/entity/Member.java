@@ -2,6 +2,8 @@ package study.data_jpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.NamedQuery;
 
 @Entity
@@ -13,9 +15,24 @@ import org.hibernate.annotations.NamedQuery;
         query = "select m from Member m where m.username = :username"
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// 조회 패턴에 맞춘 인덱스 ( MemberQueryPlanTest 에서 풀 스캔 여부를 확인한다. )
+// - username : findByUsername, findByNames, findListByUsername, findLockByUsername, 네임드 쿼리, 네이티브 쿼리, username 기준 keyset 스크롤
+// - age, username : findByPage ( where age = ? order by username ), findByAge, findByAgeWithPage
+// - team_id : 팀 -> 회원 컬렉션 배치 조회, 팀 조인
+@Table(name = "member", indexes = {
+        @Index(name = "idx_member_username_id", columnList = "username, member_id"),
+        @Index(name = "idx_member_age_username", columnList = "age, username"),
+        @Index(name = "idx_member_team_id", columnList = "team_id")
+})
 public class Member extends BaseEntity {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDENTITY 전략은 persist 시점에 바로 insert를 해야 id를 알 수 있기 때문에 JDBC batch insert가 불가능하다.
+    // SEQUENCE + allocationSize(pooled optimizer)를 사용하면 시퀀스를 50번에 한 번만 조회하고, insert는 flush 시점에 묶어서 보낸다.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name = "member_id")
     private Long id;
     private String username;
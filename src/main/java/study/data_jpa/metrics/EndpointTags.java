@@ -0,0 +1,24 @@
+package study.data_jpa.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+// 현재 요청의 컨트롤러 매핑 패턴 ( ex. /members/{id} ) 을 uri 태그로 만든다.
+public final class EndpointTags {
+
+    private static final Tag NONE = Tag.of("uri", "none");
+
+    private EndpointTags() {
+    }
+
+    public static Tag uri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NONE;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? NONE : Tag.of("uri", pattern.toString());
+    }
+}
@@ -0,0 +1,35 @@
+package study.data_jpa.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/***
+ * 하이버네이트 세션마다 생성되는 리스너 ( hibernate.session.events.auto )
+ * 실행된 SQL 수와 커넥션 획득 시간을 현재 요청의 RequestJdbcMetrics 에 더한다.
+ */
+public class JdbcMetricsSessionEventListener extends BaseSessionEventListener {
+
+    private long connectionAcquireStart = -1;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        connectionAcquireStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        if (connectionAcquireStart != -1) {
+            RequestJdbcMetrics.connectionAcquired(System.nanoTime() - connectionAcquireStart);
+            connectionAcquireStart = -1;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestJdbcMetrics.statementExecuted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestJdbcMetrics.statementExecuted();
+    }
+}
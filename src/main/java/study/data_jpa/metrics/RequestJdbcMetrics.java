@@ -0,0 +1,61 @@
+package study.data_jpa.metrics;
+
+/***
+ * 요청(스레드) 단위 JDBC 사용량
+ * RequestJdbcMetricsFilter 가 요청 시작 시 start(), 끝날 때 finish() 하고,
+ * 하이버네이트 이벤트 리스너가 그 사이에 값을 쌓는다. ( 요청 밖에서 실행된 쿼리는 집계하지 않는다. )
+ */
+public final class RequestJdbcMetrics {
+
+    private static final ThreadLocal<RequestJdbcMetrics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entitiesLoaded;
+    private long connectionAcquireNanos;
+
+    private RequestJdbcMetrics() {
+    }
+
+    public static void start() {
+        CURRENT.set(new RequestJdbcMetrics());
+    }
+
+    public static RequestJdbcMetrics finish() {
+        RequestJdbcMetrics metrics = CURRENT.get();
+        CURRENT.remove();
+        return metrics == null ? new RequestJdbcMetrics() : metrics;
+    }
+
+    static void statementExecuted() {
+        RequestJdbcMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestJdbcMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.entitiesLoaded++;
+        }
+    }
+
+    static void connectionAcquired(long nanos) {
+        RequestJdbcMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.connectionAcquireNanos += nanos;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+
+    public long getConnectionAcquireNanos() {
+        return connectionAcquireNanos;
+    }
+}
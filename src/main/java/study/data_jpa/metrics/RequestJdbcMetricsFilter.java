@@ -0,0 +1,60 @@
+package study.data_jpa.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * 요청 단위 JDBC 사용량을 엔드포인트(uri) 태그로 기록한다.
+ * - http.server.requests.jdbc.statements : 요청 당 실행된 SQL 수
+ * - http.server.requests.jdbc.entities : 요청 당 로딩된 엔티티 수
+ * - http.server.requests.jdbc.connection.acquire : 요청 당 커넥션 획득에 걸린 시간
+ */
+@RequiredArgsConstructor
+public class RequestJdbcMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestJdbcMetrics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            record(uri(request), RequestJdbcMetrics.finish());
+        }
+    }
+
+    private void record(String uri, RequestJdbcMetrics metrics) {
+        Tags tags = Tags.of("uri", uri);
+        DistributionSummary.builder("http.server.requests.jdbc.statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(metrics.getStatements());
+        DistributionSummary.builder("http.server.requests.jdbc.entities")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(metrics.getEntitiesLoaded());
+        Timer.builder("http.server.requests.jdbc.connection.acquire")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(metrics.getConnectionAcquireNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
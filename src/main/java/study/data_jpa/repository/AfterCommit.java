@@ -0,0 +1,28 @@
+package study.data_jpa.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/***
+ * 캐시 무효화처럼 커밋된 뒤에 해야 하는 작업
+ * 커밋 전에 캐시를 비우면 다른 트랜잭션이 아직 커밋되지 않은(이전) 값을 다시 캐시에 올릴 수 있다.
+ * 트랜잭션이 없으면 바로 실행한다.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
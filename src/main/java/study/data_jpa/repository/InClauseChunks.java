@@ -0,0 +1,29 @@
+package study.data_jpa.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/***
+ * 큰 IN 절 파라미터를 나누는 유틸
+ * 중복을 제거하고 CHUNK_SIZE 개씩 잘라서 쿼리 여러 번으로 나눈다.
+ * CHUNK_SIZE는 2의 제곱수로 둬서 in_clause_parameter_padding( 2의 제곱수로 패딩 )과 만나도 더 늘어나지 않게 한다.
+ * ( 오라클처럼 IN 절 파라미터가 1000개로 제한된 DB도 고려 )
+ */
+final class InClauseChunks {
+
+    static final int CHUNK_SIZE = 512;
+
+    private InClauseChunks() {
+    }
+
+    static <T> List<List<T>> of(Collection<T> values) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        List<List<T>> chunks = new ArrayList<>((distinct.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+}
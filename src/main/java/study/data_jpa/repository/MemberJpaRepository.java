@@ -1,21 +1,45 @@
 package study.data_jpa.repository;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.PersistenceContext;
-import org.springframework.scheduling.annotation.Async;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.data_jpa.entity.Member;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Repository
+@Timed("jpa.repository.invocations")
 public class MemberJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    @PersistenceUnit
+    private EntityManagerFactory emf;
+
+    private final Executor pagingExecutor;
+
+    public MemberJpaRepository(@Qualifier("pagingExecutor") Executor pagingExecutor) {
+        this.pagingExecutor = pagingExecutor;
+    }
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -42,6 +66,29 @@ public class MemberJpaRepository {
         return em.createQuery("select m from Member m", Member.class).getResultList();
     }
 
+    // 스트리밍 조회 ( 대용량 export 용 )
+    // findAll()은 모든 엔티티와 스냅샷을 한 번에 영속성 컨텍스트에 올리지만,
+    // 스트림은 fetch size 만큼씩 읽고, 읽기 전용 힌트로 스냅샷을 만들지 않으며, clearSize 마다 영속성 컨텍스트를 비워서 메모리 사용량이 일정하다.
+    // 2차 캐시도 거치지 않는다. ( 전체 회원이 Member/Team 영역에 쌓이면 clear 해도 메모리가 줄지 않는다. )
+    // action 으로 넘어온 엔티티는 다음 clear 이후 준영속 상태가 되므로 action 밖으로 들고 나가면 안된다.
+    @Transactional(readOnly = true)
+    public void streamAll(int clearSize, Consumer<Member> action) {
+        try (Stream<Member> members = em.createQuery("select m from Member m left join fetch m.team", Member.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, clearSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream()) {
+            int count = 0;
+            Iterator<Member> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % clearSize == 0) {
+                    em.clear();
+                }
+            }
+        }
+    }
+
     public List<Member> findByUsernameAndAgeGreaterThan(String username, int age) {
         return em.createQuery("select m from Member m where m.username = :username and m.age > :age", Member.class)
                 .setParameter("username", username)
@@ -70,35 +117,64 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
+        return em.createQuery("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
     }
 
-    @Async
+    // 병렬 페이징
+    // 컨텐츠 쿼리와 count 쿼리를 동시에 실행하고 결과를 Page로 합친다.
+    // 주의 : 각 쿼리는 별도의 EntityManager(커넥션)에서 실행되기 때문에 커밋된 데이터만 조회되고, 반환된 엔티티는 준영속 상태이다.
+    public Page<Member> findByPageParallel(int age, Pageable pageable) {
+        CompletableFuture<List<Member>> content = findByPageAsync(age, (int) pageable.getOffset(), pageable.getPageSize());
+        CompletableFuture<Long> totalCount = totalCountAsync(age);
+        return new PageImpl<>(content.join(), pageable, totalCount.join());
+    }
+
     public CompletableFuture<List<Member>> findByPageAsync(int age, int offset, int limit) {
-        return CompletableFuture.supplyAsync(() ->
-                    em.createQuery("select m from Member m where m.age = :age order by m.username desc", Member.class)
+        return supplyAsync(entityManager ->
+                entityManager.createQuery("select m from Member m where m.age = :age order by m.username desc", Member.class)
                         .setParameter("age", age)
                         .setFirstResult(offset)
                         .setMaxResults(limit)
                         .getResultList()
-        ).thenApply(result -> {
-            System.out.println("비동기 페이징 결과 크기 : " + result.size());
-            return result;
-        });
+        );
     }
 
-    @Async
     public CompletableFuture<Long> totalCountAsync (int age) {
-        return CompletableFuture.supplyAsync(()->
-                    em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+        return supplyAsync(entityManager ->
+                entityManager.createQuery("select count(m) from Member m where m.age = :age", Long.class)
                         .setParameter("age", age)
                         .getSingleResult()
-        ).thenApply(result -> {
-            System.out.println("비동기 total count : " + result);
-            return result;
-        });
+        );
+    }
+
+    // 이름 목록으로 회원 병렬 조회
+    // InClauseChunks.CHUNK_SIZE 개씩 나눈 조회를 pagingExecutor에서 동시에 실행하고 결과를 합친다.
+    // 주의 : findByPageParallel()과 마찬가지로 커밋된 데이터만 조회되고, 반환된 엔티티는 준영속 상태이다.
+    public List<Member> findByNamesParallel(List<String> names) {
+        List<CompletableFuture<List<Member>>> chunks = InClauseChunks.of(names).stream()
+                .map(chunk -> supplyAsync(entityManager ->
+                        entityManager.createQuery("select m from Member m where m.username in :names", Member.class)
+                                .setParameter("names", chunk)
+                                .getResultList()))
+                .toList();
+        return chunks.stream()
+                .map(CompletableFuture::join)
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    // 트랜잭션에 묶인 공유 EntityManager는 스레드 간에 공유할 수 없기 때문에 작업마다 새로 만들고 닫는다.
+    private <T> CompletableFuture<T> supplyAsync(Function<EntityManager, T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            EntityManager entityManager = emf.createEntityManager();
+            try {
+                return query.apply(entityManager);
+            } finally {
+                entityManager.close();
+            }
+        }, pagingExecutor);
     }
 
 }
@@ -0,0 +1,58 @@
+package study.data_jpa.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/***
+ * 네이티브 쿼리용 정렬 화이트리스트
+ * 네이티브 쿼리는 Pageable 의 정렬 속성을 컬럼명으로 그대로 붙이기 때문에 엔티티 필드명(id)을 쓰면 깨진다.
+ * 허용한 속성만 인덱스 컬럼으로 바꾸고, 나머지는 전체 테이블을 정렬(filesort)하게 되므로 거부한다.
+ * - id -> member_id ( PK )
+ * - username -> username, member_id ( idx_member_username_id )
+ * 정렬이 없으면 member_id 순으로 정렬해서 페이지가 섞이지 않게 한다.
+ */
+final class MemberNativeSort {
+
+    private static final Map<String, List<String>> INDEXED_COLUMNS = Map.of(
+            "id", List.of("member_id"),
+            "username", List.of("username", "member_id")
+    );
+
+    private MemberNativeSort() {
+    }
+
+    static Pageable translate(Pageable pageable) {
+        Sort sort = translate(pageable.getSort());
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+
+    private static Sort translate(Sort sort) {
+        if (sort.isUnsorted()) {
+            return Sort.by("member_id");
+        }
+
+        // 방향이 섞이면 인덱스 순서로 읽을 수 없다.
+        Sort.Direction direction = sort.iterator().next().getDirection();
+        Map<String, Sort.Order> orders = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            List<String> columns = INDEXED_COLUMNS.get(order.getProperty());
+            if (columns == null) {
+                throw new UnsupportedSortException("정렬할 수 없는 속성입니다. property = " + order.getProperty()
+                        + ", 가능한 속성 = " + INDEXED_COLUMNS.keySet());
+            }
+            if (order.getDirection() != direction) {
+                throw new UnsupportedSortException("정렬 방향은 모두 같아야 합니다. sort = " + sort);
+            }
+            columns.forEach(column -> orders.putIfAbsent(column, new Sort.Order(direction, column)));
+        }
+        return Sort.by(new ArrayList<>(orders.values()));
+    }
+}
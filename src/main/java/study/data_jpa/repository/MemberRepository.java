@@ -2,21 +2,29 @@ package study.data_jpa.repository;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import study.data_jpa.dto.MemberDto;
 import study.data_jpa.entity.Member;
 import study.data_jpa.repository.projections.MemberProjection;
+import study.data_jpa.repository.projections.UsernameAndAge;
 import study.data_jpa.repository.projections.UsernameOnly;
 import study.data_jpa.repository.projections.UsernameOnlyDto;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryQueryDSL, MemberRepositoryMybatis {
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryQueryDSL, MemberRepositoryMybatis, MemberRepositoryBulk, MemberRepositoryOptimistic, MemberRepositoryNames, MemberRepositoryCount, MemberRepositoryNestedProjection {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
@@ -38,13 +46,86 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") List<String> names);
+    // 회원 단건 조회 캐시 ( GET /members/{id} )
+    // 엔티티를 캐시하면 준영속 엔티티를 여러 요청이 공유하게 되므로 DTO를 캐시한다.
+    // save, delete, 벌크 연산 시 캐시를 지운다. ( 크기/만료 시간은 application.yml 의 spring.cache.caffeine.spec )
+    // 주의 : 변경 감지(dirty checking)로 수정된 경우는 지우지 못하기 때문에 만료 시간까지 이전 값이 보일 수 있다.
+    // 저장/삭제 시 count 캐시( memberCounts )도 함께 지운다. ( MemberRepositoryCount )
+    // updateWithRetry(), bulkAgePlusChunked() 는 각 구현체에서 직접 지운다.
+    @Cacheable(cacheNames = "members", key = "#p0", unless = "#result == null")
+    @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t where m.id = :id")
+    Optional<MemberDto> findMemberDtoById(@Param("id") Long id);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "members", key = "#p0.id"),
+            @CacheEvict(cacheNames = MemberRepositoryCountImpl.CACHE_NAME, allEntries = true)
+    })
+    <S extends Member> S save(S entity);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "members", key = "#p0.id"),
+            @CacheEvict(cacheNames = MemberRepositoryCountImpl.CACHE_NAME, allEntries = true)
+    })
+    <S extends Member> S saveAndFlush(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    <S extends Member> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    <S extends Member> List<S> saveAllAndFlush(Iterable<S> entities);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "members", key = "#p0.id"),
+            @CacheEvict(cacheNames = MemberRepositoryCountImpl.CACHE_NAME, allEntries = true)
+    })
+    void delete(Member entity);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "members", key = "#p0"),
+            @CacheEvict(cacheNames = MemberRepositoryCountImpl.CACHE_NAME, allEntries = true)
+    })
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    void deleteAll(Iterable<? extends Member> entities);
+
+    @Override
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    void deleteAllInBatch(Iterable<Member> entities);
+
+    @Override
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    void deleteAllInBatch();
+
+    // findByNames(List<String> names) : 큰 목록은 나눠서 조회한다. ( MemberRepositoryNames )
 
 
     // 메소드 이름 find ~ By 안에 있는 건 아무거나 적어도 되며
     // JPA에서 반환타입은 어떤거든 쓸 수 있다.
     List<Member> findListByUsername(String username); // collections
+    // 쿼리 캐시 : 결과(id 목록)를 캐시하고 엔티티는 2차 캐시에서 꺼낸다.
+    // member 테이블이 변경되면(벌크 연산 포함) 하이버네이트가 알아서 무효화한다.
+    // ( bulkAgePlusChunked 는 별도 쿼리 공간을 써서 무효화하지 않는다. username 과 상관없는 나이만 바꾸고 엔티티는 직접 지운다. )
+    @QueryHints(value = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Member findByUsername(String username); // single
     Optional<Member> findOptionalByUsername(String username); // optional single
 
@@ -56,6 +137,48 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     Page<Member> findByAgeWithPage(@Param("age") int age, Pageable pageable);
     Slice<Member> findByAge(int age, Pageable pageable);
 
+    // DTO 페이징 ( /members )
+    // 엔티티를 조회하지 않기 때문에 영속성 컨텍스트에 올라가지 않고(스냅샷 X), 필요한 컬럼만 가져오며,
+    // 팀 이름도 left join 으로 한 번에 가져와서 팀 지연 로딩 쿼리가 추가로 나가지 않는다. ( 컨텐츠 1번 + count 1번 )
+    // 정렬은 Member 의 필드(id, username, age)만 가능하다.
+    @Query(
+            value = "select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m"
+    )
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    // count 캐시 페이징
+    // 컨텐츠만 조회하고 count는 memberCounts 캐시에서 가져온다. ( 페이지를 넘길 때 쿼리 1번 )
+    // 조건이 없는 목록은 전체 건수 추정치(estimatedCount)를 쓰고, 조건이 있으면 조건별로 정확한 count를 캐시한다.
+    @Query("select new study.data_jpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t")
+    List<MemberDto> findMemberDtoContent(Pageable pageable);
+
+    default Page<MemberDto> findMemberDtoPageCachedCount(Pageable pageable) {
+        return pageWithCachedCount(findMemberDtoContent(pageable), pageable, "member:estimated", this::estimatedCount);
+    }
+
+    List<Member> findPageContentBy(Pageable pageable);
+
+    default Page<Member> findAllCachedCount(Pageable pageable) {
+        return pageWithCachedCount(findPageContentBy(pageable), pageable, "member:estimated", this::estimatedCount);
+    }
+
+    @Query("select m from Member m left join m.team where m.age = :age")
+    List<Member> findContentByAge(@Param("age") int age, Pageable pageable);
+
+    long countByAge(int age);
+
+    default Page<Member> findByAgeWithPageCachedCount(int age, Pageable pageable) {
+        return pageWithCachedCount(findContentByAge(age, pageable), pageable, "member:age=" + age, () -> countByAge(age));
+    }
+
+    // 키셋(커서) 페이징
+    // offset 방식은 앞의 데이터를 모두 읽고 버리기 때문에 뒤 페이지로 갈수록 느려지고, Page는 count 쿼리까지 매번 나간다.
+    // 마지막으로 읽은 정렬 키 (ex. username, id) 다음부터 읽기 때문에 몇 번째 페이지든 비용이 같다. (count 쿼리 X)
+    // 정렬 조건에 id가 없으면 스프링 데이터 JPA가 알아서 id를 추가해서 순서를 유일하게 만든다.
+    @EntityGraph(attributePaths = {"team"})
+    Window<Member> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
     // 벌크 연산
     // 주의 사항 : 벌크 연산 시 영속성 컨테이너를 무시하고 바로 쿼리로 던지고 DB에 반영해버린다.
 
@@ -64,7 +187,8 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      */
 
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @CacheEvict(cacheNames = {"members", MemberRepositoryCountImpl.CACHE_NAME}, allEntries = true)
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     // fetchJoin >> N + 1 문제 해결 방법 중 1개
@@ -97,25 +221,46 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     // lock
     // 실무에서 실시간 트래픽이 많은 곳에서 사용시 성능 저하가 있기 떄문에 낙관적 락을 사용해서 로직으로 풀어내는게 좋다.
+    // 낙관적 락 + 재시도 : updateWithRetry() ( MemberRepositoryOptimistic )
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
 
     List<UsernameOnly> findProjectionsByUsername(@Param("username") String username);
+    List<UsernameAndAge> findUsernameAndAgeByUsername(@Param("username") String username);
     List<UsernameOnlyDto> findProjections2ByUsername(@Param("username") String username);
     // 쿼리는 같지만 가져오게 싶은게 다를때 사용하기 좋다. (동적 프로젝션)
     <T> List<T> findProjections3ByUsername(@Param("username") String username, Class<T> clazz);
+    // 중첩 프로젝션은 findProjections3ByUsername 대신 findNestedProjectionsByUsername() 을 쓴다. ( MemberRepositoryNestedProjection )
 
 
     // 네이티브 쿼리 ( 제약이 너무 많다. )
-    // 1. sort 정상 동작 하지 않을 수 있다.
+    // 1. sort 정상 동작 하지 않을 수 있다. ( 컬럼명으로 바꿔서 넘긴다 -> MemberNativeSort )
     // 2. jpql처럼 애플리케이션 로딩 시점에서 문법 확인 불가
     // 3. 동적 쿼리 불가
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     Member findByNativeQuery(String username);
 
-    @Query(value = "select m.member_id as id, m.username, t.name as teamName from member m left join team t",
+    // 네이티브 프로젝션 페이징
+    // left join 은 회원 1명당 팀이 최대 1개라서 count는 member 테이블만 센다.
+    // 정렬은 MemberNativeSort 화이트리스트( id, username )만 가능하고, 인덱스 컬럼으로 바꿔서 넘긴다.
+    default Page<MemberProjection> findByNativeProjection(Pageable pageable) {
+        return findNativeProjectionPage(MemberNativeSort.translate(pageable));
+    }
+
+    // 정렬은 컬럼명( member_id, username )으로 넘겨야 한다. ( findByNativeProjection 사용 )
+    @Query(value = "select m.member_id as id, m.username, t.name as teamName from member m left join team t on t.team_id = m.team_id",
     countQuery = "select count(*) from member",
     nativeQuery = true)
-    Page<MemberProjection> findByNativeProjection(Pageable pageable);
+    Page<MemberProjection> findNativeProjectionPage(Pageable pageable);
+
+    // count 캐시 페이징 ( findMemberDtoPageCachedCount 참조 )
+    default Page<MemberProjection> findByNativeProjectionCachedCount(Pageable pageable) {
+        Pageable translated = MemberNativeSort.translate(pageable);
+        return pageWithCachedCount(findNativeProjectionContent(translated), translated, "member:estimated", this::estimatedCount);
+    }
+
+    @Query(value = "select m.member_id as id, m.username, t.name as teamName from member m left join team t on t.team_id = m.team_id",
+    nativeQuery = true)
+    List<MemberProjection> findNativeProjectionContent(Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package study.data_jpa.repository;
+
+import study.data_jpa.entity.Member;
+
+import java.util.List;
+
+public interface MemberRepositoryBulk {
+    <S extends Member> List<S> saveAllBatched(Iterable<S> members);
+    <S extends Member> List<S> saveAllBatched(Iterable<S> members, int batchSize);
+
+    int bulkAgePlusChunked(int age);
+    int bulkAgePlusChunked(int age, int chunkSize);
+}
@@ -0,0 +1,191 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class MemberRepositoryBulkImpl implements MemberRepositoryBulk {
+
+    // hibernate.jdbc.batch_size 와 맞춘다.
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+    // 청크 수정이 무효화할 쿼리 공간 ( 어떤 캐시 쿼리도 쓰지 않는다. )
+    // 지정하지 않으면 네이티브 수정마다 하이버네이트가 모든 2차 캐시 region과 쿼리 캐시를 비운다.
+    private static final String CHUNK_QUERY_SPACE = "member_age_chunk";
+
+    private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+
+    // 같은 객체 안에서 호출하면 프록시를 거치지 않기 때문에 여기에도 트랜잭션을 건다.
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = MemberRepositoryCountImpl.CACHE_NAME, allEntries = true)
+    public <S extends Member> List<S> saveAllBatched(Iterable<S> members) {
+        return saveAllBatched(members, DEFAULT_BATCH_SIZE);
+    }
+
+    // 대량 저장
+    // saveAll()은 엔티티를 모두 영속성 컨텍스트에 쌓아두기 때문에 건수가 많아질수록 flush(dirty checking) 비용과 메모리가 늘어난다.
+    // batchSize 마다 flush(JDBC batch insert) 후 clear 해서 영속성 컨텍스트를 일정한 크기로 유지한다.
+    // 주의 : 신규 엔티티 전용이며, 호출한 트랜잭션의 영속성 컨텍스트도 비워지기 때문에 반환된 엔티티는 준영속 상태다.
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = MemberRepositoryCountImpl.CACHE_NAME, allEntries = true)
+    public <S extends Member> List<S> saveAllBatched(Iterable<S> members, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize는 1 이상이어야 합니다. batchSize = " + batchSize);
+        }
+
+        List<S> result = new ArrayList<>();
+        for (S member : members) {
+            em.persist(member);
+            result.add(member);
+            if (result.size() % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return result;
+    }
+
+    @Override
+    public int bulkAgePlusChunked(int age) {
+        return bulkAgePlusChunked(age, DEFAULT_CHUNK_SIZE);
+    }
+
+    // 청크 단위 벌크 수정
+    // bulkAgePlus()는 UPDATE 한 번으로 조건에 맞는 모든 행에 락을 잡고, 끝나면 영속성 컨텍스트를 통째로 비운다.
+    // 여기서는 id 순으로 chunkSize 개씩 잘라서, 청크마다 짧은 트랜잭션(REQUIRES_NEW)으로 해당 id 구간만 수정한다.
+    // 수정한 회원만 현재 영속성 컨텍스트에서 detach 하고, 2차 캐시와 "members" 캐시도 해당 id만 지운다. ( 나이별 count 캐시는 전부 지운다. )
+    // JPQL 벌크 수정은 하이버네이트가 Member region과 member 테이블의 캐시 쿼리를 통째로 무효화하기 때문에
+    // 네이티브 UPDATE 에 별도 쿼리 공간( CHUNK_QUERY_SPACE )을 지정해서 자동 무효화를 막고 직접 지운다.
+    // ( 쿼리 캐시를 쓰는 findByUsername 은 나이와 상관없는 id 목록만 캐시하므로 엔티티만 지우면 된다. 나이로 거르는 캐시 쿼리를 추가하면 다시 봐야 한다. )
+    // 주의 : 청크마다 커밋되므로 중간에 실패하면 앞 청크는 이미 반영되어 있다.
+    //       호출한 트랜잭션이 회원 행에 락을 잡고 있으면 청크 트랜잭션이 기다리게 되므로 쓰기 트랜잭션 밖에서 호출한다.
+    //       영속성 컨텍스트에 flush 하지 않은 회원 변경이 있으면 detach 로 사라지므로 시작하기 전에 IllegalStateException 을 던진다.
+    @Override
+    public int bulkAgePlusChunked(int age, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다. chunkSize = " + chunkSize);
+        }
+
+        assertNoUnflushedMembers();
+
+        TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int updated = 0;
+        long lastId = 0L;
+        while (true) {
+            long fromId = lastId;
+            List<Long> ids = chunkTransaction.execute(status -> {
+                List<Long> chunk = em.createQuery(
+                                "select m.id from Member m where m.age >= :age and m.id > :fromId order by m.id", Long.class)
+                        .setParameter("age", age)
+                        .setParameter("fromId", fromId)
+                        .setMaxResults(chunkSize)
+                        .getResultList();
+                if (!chunk.isEmpty()) {
+                    em.createNativeQuery("update member set age = age + 1, version = version + 1 where age >= :age and member_id > :fromId and member_id <= :toId")
+                            .unwrap(NativeQuery.class)
+                            .addSynchronizedQuerySpace(CHUNK_QUERY_SPACE)
+                            .setParameter("age", age)
+                            .setParameter("fromId", fromId)
+                            .setParameter("toId", chunk.get(chunk.size() - 1))
+                            .executeUpdate();
+                }
+                return chunk;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+
+            evict(ids);
+            updated += ids.size();
+            lastId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+        return updated;
+    }
+
+    // 현재 스레드에 묶인 영속성 컨텍스트( 호출한 트랜잭션 또는 OSIV )에서 수정된 회원만 detach 하고, 2차 캐시에서도 지운다.
+    // flush 하지 않은 변경이 없는 것은 시작할 때 확인했다. ( assertNoUnflushedMembers )
+    private void evict(List<Long> ids) {
+        SessionImplementor session = boundSession();
+        if (session != null) {
+            EntityPersister persister = memberPersister(session);
+            for (Long id : ids) {
+                Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister));
+                if (managed != null) {
+                    session.detach(managed);
+                }
+            }
+        }
+
+        ids.forEach(id -> em.getEntityManagerFactory().getCache().evict(Member.class, id));
+
+        Cache members = cacheManager.getCache("members");
+        if (members != null) {
+            ids.forEach(members::evict);
+        }
+        // 이미 커밋된 변경이므로 바깥 트랜잭션의 커밋을 기다리지 않고 바로 지운다.
+        Cache counts = cacheManager.getCache(MemberRepositoryCountImpl.CACHE_NAME);
+        if (counts != null) {
+            counts.invalidate();
+        }
+    }
+
+    // detach 는 flush 하지 않은 변경을 그대로 버리기 때문에 수정/삭제한 회원이 있으면 시작하지 않는다.
+    private void assertNoUnflushedMembers() {
+        SessionImplementor session = boundSession();
+        if (session == null) {
+            return;
+        }
+        EntityPersister persister = memberPersister(session);
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+            if (!(entry.getKey() instanceof Member member)) {
+                continue;
+            }
+            EntityEntry entityEntry = entry.getValue();
+            Object[] loadedState = entityEntry.getLoadedState();
+            boolean unflushed = entityEntry.getStatus() == Status.DELETED
+                    || loadedState != null && persister.findDirty(persister.getValues(member), loadedState, member, session) != null;
+            if (unflushed) {
+                throw new IllegalStateException("flush 하지 않은 회원 변경이 있습니다. flush 한 뒤 호출하세요. member = " + member);
+            }
+        }
+    }
+
+    private SessionImplementor boundSession() {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(em.getEntityManagerFactory());
+        return holder == null ? null : holder.getEntityManager().unwrap(SessionImplementor.class);
+    }
+
+    private static EntityPersister memberPersister(SessionImplementor session) {
+        return session.getFactory().getMappingMetamodel().getEntityDescriptor(Member.class);
+    }
+}
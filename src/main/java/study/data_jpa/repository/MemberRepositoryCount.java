@@ -0,0 +1,13 @@
+package study.data_jpa.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+public interface MemberRepositoryCount {
+    long estimatedCount();
+    long cachedCount(String key, LongSupplier count);
+    <T> Page<T> pageWithCachedCount(List<T> content, Pageable pageable, String key, LongSupplier count);
+}
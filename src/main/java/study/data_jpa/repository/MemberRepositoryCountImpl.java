@@ -0,0 +1,79 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+@RequiredArgsConstructor
+public class MemberRepositoryCountImpl implements MemberRepositoryCount {
+
+    // count 캐시 ( 만료 시간은 CacheConfig, 회원 저장/삭제/벌크 연산 시 커밋 후 전부 지운다. )
+    public static final String CACHE_NAME = "memberCounts";
+
+    private final EntityManager em;
+    private final CacheManager cacheManager;
+
+    // 전체 회원 수 추정치
+    // count(*) 대신 DB가 관리하는 테이블 통계를 읽는다. ( H2 : information_schema.tables.row_count_estimate )
+    // 테이블 이름은 엔티티 매핑에서 가져오고, H2가 아니거나 통계가 없으면 정확한 count를 구한다.
+    // 조건 없는 목록처럼 정확한 전체 건수가 필요 없는 곳에서만 사용한다. ( GET /members/estimated )
+    @Override
+    @Transactional(readOnly = true)
+    public long estimatedCount() {
+        SessionFactoryImplementor sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        if (!(sessionFactory.getJdbcServices().getDialect() instanceof H2Dialect)) {
+            return exactCount();
+        }
+
+        List<?> estimate = em.createNativeQuery(
+                        "select row_count_estimate from information_schema.tables where table_schema = current_schema and upper(table_name) = upper(:table)")
+                .setParameter("table", memberTableName(sessionFactory))
+                .getResultList();
+        if (estimate.isEmpty() || estimate.get(0) == null) {
+            return exactCount();
+        }
+        return ((Number) estimate.get(0)).longValue();
+    }
+
+    private long exactCount() {
+        return em.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+    }
+
+    // 스키마가 붙어 있으면 ( ex. public.member ) 테이블 이름만 쓴다.
+    private static String memberTableName(SessionFactoryImplementor sessionFactory) {
+        String table = ((AbstractEntityPersister) sessionFactory.getMappingMetamodel().getEntityDescriptor(Member.class)).getTableName();
+        return table.substring(table.lastIndexOf('.') + 1);
+    }
+
+    // key 별로 count 결과를 캐시한다. key에는 쿼리와 파라미터를 모두 넣어야 한다. ( ex. "member:age=10" )
+    @Override
+    public long cachedCount(String key, LongSupplier count) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return count.getAsLong();
+        }
+        Long cached = cache.get(key, count::getAsLong);
+        return cached == null ? count.getAsLong() : cached;
+    }
+
+    // 컨텐츠만 조회한 결과로 Page를 만든다.
+    // 첫 페이지가 pageSize 보다 작거나 마지막 페이지면 count를 아예 구하지 않고, 나머지는 캐시된 count를 쓴다.
+    // 페이지를 넘길 때는 컨텐츠 쿼리 1번만 나간다.
+    // 주의 : 캐시가 만료되기 전까지는 변경 감지로 바뀐 건수( ex. 나이 변경 )가 반영되지 않을 수 있다.
+    @Override
+    public <T> Page<T> pageWithCachedCount(List<T> content, Pageable pageable, String key, LongSupplier count) {
+        return PageableExecutionUtils.getPage(content, pageable, () -> cachedCount(key, count));
+    }
+}
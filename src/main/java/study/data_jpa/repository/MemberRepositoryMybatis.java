@@ -9,4 +9,8 @@ import java.util.List;
 public interface MemberRepositoryMybatis {
     List<Member> findMemberMybatisCustom();
     MemberMybatisDto findMemberByIdCustom(Long id);
+
+    // 대량 저장 ( JPA 영속성 컨텍스트를 거치지 않는다. )
+    int saveAllMybatisBatch(List<Member> members, int chunkSize);
+    int saveAllMybatisMultiRow(List<Member> members, int chunkSize);
 }
@@ -1,20 +1,31 @@
 package study.data_jpa.repository;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.apache.ibatis.annotations.Result;
 import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.AuditorAware;
 import study.data_jpa.dto.MemberMybatisDto;
 import study.data_jpa.entity.Member;
 import org.apache.ibatis.session.SqlSession;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @RequiredArgsConstructor
 public class MemberRepositoryMybatisImpl implements MemberRepositoryMybatis {
 
     private final SqlSession sqlSession;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final AuditorAware<String> auditorAware;
+    private final EntityManagerFactory entityManagerFactory;
 
     private String namespace = "study.data_jpa.repository.MemberRepositoryMybatisImpl.";
 
@@ -28,5 +39,69 @@ public class MemberRepositoryMybatisImpl implements MemberRepositoryMybatis {
         return sqlSession.selectOne(namespace + "findMemberByIdCustom", id);
     }
 
+    // ExecutorType.BATCH 세션은 insert를 바로 실행하지 않고 JDBC batch에 모아두었다가 flushStatements() 시점에 한 번에 보낸다.
+    // chunkSize 마다 commit 해서 batch와 트랜잭션이 무한정 커지지 않게 한다.
+    // ( 스프링 트랜잭션 안에서 호출되면 commit은 스프링 트랜잭션에 맡겨지고 flush만 일어난다. )
+    @Override
+    @CacheEvict(cacheNames = MemberRepositoryCountImpl.CACHE_NAME, allEntries = true)
+    public int saveAllMybatisBatch(List<Member> members, int chunkSize) {
+        validateChunkSize(chunkSize);
+        String auditor = currentAuditor();
+
+        try (SqlSession batchSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            for (int i = 0; i < members.size(); i++) {
+                batchSession.insert(namespace + "saveMemberMybatisCustom", insertParameter("member", members.get(i), auditor));
+                if ((i + 1) % chunkSize == 0) {
+                    batchSession.commit();
+                }
+            }
+            batchSession.commit();
+        }
+        evictSecondLevelCache();
+        return members.size();
+    }
+
+    // chunkSize 건씩 multi-row insert 한 문장으로 보낸다.
+    @Override
+    @CacheEvict(cacheNames = MemberRepositoryCountImpl.CACHE_NAME, allEntries = true)
+    public int saveAllMybatisMultiRow(List<Member> members, int chunkSize) {
+        validateChunkSize(chunkSize);
+        String auditor = currentAuditor();
+
+        int count = 0;
+        for (int from = 0; from < members.size(); from += chunkSize) {
+            List<Member> chunk = members.subList(from, Math.min(from + chunkSize, members.size()));
+            count += sqlSession.insert(namespace + "saveAllMemberMybatisCustom", insertParameter("members", chunk, auditor));
+        }
+        evictSecondLevelCache();
+        return count;
+    }
 
+    // MyBatis 는 하이버네이트를 거치지 않기 때문에 2차 캐시와 쿼리 캐시(update timestamps)가 변경을 알지 못한다.
+    // ( ex. findByUsername 쿼리 캐시에 남은 빈 결과가 계속 사용된다. )
+    // 커밋 후 Member 영역과 기본 쿼리 캐시 영역을 비운다.
+    private void evictSecondLevelCache() {
+        AfterCommit.run(() -> {
+            entityManagerFactory.getCache().evict(Member.class);
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        });
+    }
+
+    private Map<String, Object> insertParameter(String name, Object value, String auditor) {
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put(name, value);
+        parameter.put("auditor", auditor);
+        return parameter;
+    }
+
+    // JPA Auditing을 거치지 않기 때문에 작성자를 직접 넣어준다.
+    private String currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse(null);
+    }
+
+    private void validateChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다. chunkSize = " + chunkSize);
+        }
+    }
 }
@@ -0,0 +1,9 @@
+package study.data_jpa.repository;
+
+import study.data_jpa.entity.Member;
+
+import java.util.List;
+
+public interface MemberRepositoryNames {
+    List<Member> findByNames(List<String> names);
+}
@@ -0,0 +1,31 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MemberRepositoryNamesImpl implements MemberRepositoryNames {
+
+    private final EntityManager em;
+
+    // 이름 목록으로 회원 조회
+    // 리스트 크기마다 SQL이 달라져 쿼리 플랜 캐시가 커지는 문제는 in_clause_parameter_padding 으로 줄이고,
+    // 파라미터 수 제한에 걸리지 않도록 InClauseChunks.CHUNK_SIZE 개씩 나눠서 조회한 뒤 합친다. ( 같은 트랜잭션, 같은 커넥션 )
+    // 병렬로 조회하려면 MemberJpaRepository.findByNamesParallel()
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNames(List<String> names) {
+        List<Member> result = new ArrayList<>();
+        for (List<String> chunk : InClauseChunks.of(names)) {
+            result.addAll(em.createQuery("select m from Member m where m.username in :names", Member.class)
+                    .setParameter("names", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,7 @@
+package study.data_jpa.repository;
+
+import java.util.List;
+
+public interface MemberRepositoryNestedProjection {
+    <T> List<T> findNestedProjectionsByUsername(String username, Class<T> type);
+}
@@ -0,0 +1,115 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.projection.ProjectionInformation;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RequiredArgsConstructor
+public class MemberRepositoryNestedProjectionImpl implements MemberRepositoryNestedProjection {
+
+    private final EntityManager em;
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    // 프로젝션 타입별로 만든 select 절을 재사용한다.
+    private final Map<Class<?>, NestedSelect> selects = new ConcurrentHashMap<>();
+
+    // 중첩 프로젝션 ( NestedClosedProjections 등 )
+    // 스프링 데이터 JPA는 두 번째 단계부터 엔티티 전체(Team)를 조회하지만,
+    // 여기서는 프로젝션에 선언된 값만 조인해서 한 번에 가져오고( select m.username, t1.name, t1.id ... left join m.team t1 )
+    // 결과를 Map으로 묶어서 중첩 프록시를 만든다. 엔티티는 영속성 컨텍스트에 올라가지 않는다.
+    // 주의 : 중첩은 한 단계, ToOne 연관관계만 지원한다.
+    @Override
+    @Transactional(readOnly = true)
+    public <T> List<T> findNestedProjectionsByUsername(String username, Class<T> type) {
+        NestedSelect select = selects.computeIfAbsent(type, this::createSelect);
+        return em.createQuery(select.jpql() + " where m.username = :username", Tuple.class)
+                .setParameter("username", username)
+                .getResultStream()
+                .map(tuple -> projectionFactory.createProjection(type, select.toSource(tuple)))
+                .toList();
+    }
+
+    private NestedSelect createSelect(Class<?> type) {
+        EntityType<Member> memberType = em.getMetamodel().entity(Member.class);
+        List<String> selections = new ArrayList<>();
+        List<String> joins = new ArrayList<>();
+        List<Column> columns = new ArrayList<>();
+
+        for (PropertyDescriptor property : projectionFactory.getProjectionInformation(type).getInputProperties()) {
+            if (!isNestedProjection(property.getPropertyType())) {
+                selections.add("m." + property.getName());
+                columns.add(new Column(property.getName(), null));
+                continue;
+            }
+
+            // 연관 엔티티가 없으면(left join) 중첩 프로젝션도 null 이 되도록 식별자를 함께 가져온다.
+            String alias = "j" + joins.size();
+            joins.add(" left join m." + property.getName() + " " + alias);
+            ProjectionInformation nested = projectionFactory.getProjectionInformation(property.getPropertyType());
+            for (PropertyDescriptor leaf : nested.getInputProperties()) {
+                if (isNestedProjection(leaf.getPropertyType())) {
+                    throw new IllegalArgumentException("중첩 프로젝션은 한 단계만 지원합니다. property = " + property.getName() + "." + leaf.getName());
+                }
+                selections.add(alias + "." + leaf.getName());
+                columns.add(new Column(property.getName(), leaf.getName()));
+            }
+            selections.add(alias + "." + idName(memberType, property.getName()));
+            columns.add(new Column(property.getName(), Column.ID));
+        }
+
+        String jpql = "select " + String.join(", ", selections) + " from Member m" + String.join("", joins);
+        return new NestedSelect(jpql, columns);
+    }
+
+    private static boolean isNestedProjection(Class<?> type) {
+        return type.isInterface() && !type.getName().startsWith("java.");
+    }
+
+    private static String idName(EntityType<Member> memberType, String association) {
+        SingularAttribute<? super Member, ?> attribute = memberType.getSingularAttribute(association);
+        IdentifiableType<?> target = (IdentifiableType<?>) attribute.getType();
+        return target.getId(target.getIdType().getJavaType()).getName();
+    }
+
+    // nested 가 null 이면 루트 값, 아니면 property 아래 중첩 값
+    private record Column(String property, String nested) {
+        static final String ID = "$id";
+    }
+
+    private record NestedSelect(String jpql, List<Column> columns) {
+
+        // 연관 엔티티가 없으면 null 값을 넣어야 하므로 HashMap을 쓴다.
+        @SuppressWarnings("unchecked")
+        Map<String, Object> toSource(Tuple tuple) {
+            Map<String, Object> source = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                Column column = columns.get(i);
+                Object value = tuple.get(i);
+                if (column.nested() == null) {
+                    source.put(column.property(), value);
+                } else if (Column.ID.equals(column.nested())) {
+                    if (value == null) {
+                        source.put(column.property(), null);
+                    }
+                } else {
+                    ((Map<String, Object>) source.computeIfAbsent(column.property(), key -> new HashMap<>()))
+                            .put(column.nested(), value);
+                }
+            }
+            return source;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package study.data_jpa.repository;
+
+import study.data_jpa.entity.Member;
+
+import java.util.function.Consumer;
+
+public interface MemberRepositoryOptimistic {
+    Member updateWithRetry(Long memberId, Consumer<Member> change);
+    Member updateWithRetry(Long memberId, Consumer<Member> change, int maxAttempts);
+}
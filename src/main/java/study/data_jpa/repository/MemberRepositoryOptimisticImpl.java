@@ -0,0 +1,94 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.entity.Member;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class MemberRepositoryOptimisticImpl implements MemberRepositoryOptimistic {
+
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long INITIAL_BACKOFF_MILLIS = 10;
+    private static final long MAX_BACKOFF_MILLIS = 200;
+
+    private final EntityManager em;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+
+    @Override
+    public Member updateWithRetry(Long memberId, Consumer<Member> change) {
+        return updateWithRetry(memberId, change, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    // 낙관적 락 + 재시도
+    // 매 시도마다 새 트랜잭션(REQUIRES_NEW)에서 회원을 다시 읽고 change를 적용한다.
+    // 다른 트랜잭션이 먼저 수정해서 version이 맞지 않으면 backoff( 10ms 부터 2배씩, 최대 200ms, 지터 포함 ) 후 다시 시도한다.
+    // maxAttempts 번 모두 실패하면 마지막 예외를 그대로 던진다.
+    // 커밋 후 회원 단건 캐시( members )와 count 캐시를 지운다. ( username, age 가 바뀔 수 있다. )
+    // 주의 : change는 여러 번 호출될 수 있으므로 외부 상태를 바꾸면 안 된다. 반환된 회원은 준영속 상태다.
+    @Override
+    public Member updateWithRetry(Long memberId, Consumer<Member> change, int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts는 1 이상이어야 합니다. maxAttempts = " + maxAttempts);
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Member updated = transaction.execute(status -> {
+                    Member member = em.find(Member.class, memberId);
+                    if (member == null) {
+                        throw new EmptyResultDataAccessException("회원이 없습니다. id = " + memberId, 1);
+                    }
+                    change.accept(member);
+                    em.flush();
+                    return member;
+                });
+                evict(memberId);
+                return updated;
+            } catch (OptimisticLockException | OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private void evict(Long memberId) {
+        Cache members = cacheManager.getCache("members");
+        if (members != null) {
+            members.evict(memberId);
+        }
+        // 이미 커밋된 변경이므로 바깥 트랜잭션의 커밋을 기다리지 않고 바로 지운다.
+        Cache counts = cacheManager.getCache(MemberRepositoryCountImpl.CACHE_NAME);
+        if (counts != null) {
+            counts.invalidate();
+        }
+    }
+
+    private void sleep(long backoff) {
+        try {
+            // 동시에 실패한 요청들이 같은 시점에 다시 몰리지 않도록 지터를 준다.
+            Thread.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트 되었습니다.", e);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package study.data_jpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import study.data_jpa.dto.MemberSearchCondition;
+import study.data_jpa.dto.MemberTeamDto;
 import study.data_jpa.entity.Member;
 
 import java.util.List;
 
 public interface MemberRepositoryQueryDSL {
     List<Member> findMemberQueryDSLCustom();
+    Page<MemberTeamDto> search(MemberSearchCondition condition, Pageable pageable);
 }
@@ -1,19 +1,130 @@
 package study.data_jpa.repository;
 
-import jakarta.persistence.EntityManager;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.util.StringUtils;
+import study.data_jpa.dto.MemberSearchCondition;
+import study.data_jpa.dto.MemberTeamDto;
+import study.data_jpa.dto.QMemberTeamDto;
 import study.data_jpa.entity.Member;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import static study.data_jpa.entity.QMember.member;
+import static study.data_jpa.entity.QTeam.team;
+
 @RequiredArgsConstructor
 // 사용자 정의 레포지토리 만들때 규칙은 구현체의 이름을 메인 레포지토리 + Impl 이렇게 맞춰야한다.
 public class MemberRepositoryQueryDSLImpl implements MemberRepositoryQueryDSL {
 
-    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
 
     @Override
     public List<Member> findMemberQueryDSLCustom() {
-        return em.createQuery("select m from Member m", Member.class).getResultList();
+        return queryFactory
+                .selectFrom(member)
+                .fetch();
+    }
+
+    // 동적 검색 ( GET /members/search )
+    // 엔티티 대신 화면에 필요한 컬럼만 DTO로 조회한다. ( 영속성 컨텍스트, 스냅샷 X )
+    // 값이 없는 조건은 null을 반환해서 where 절에서 빠진다.
+    // 조건 값은 모두 파라미터로 바인딩되기 때문에 JPQL 문자열은 "어떤 조건이 있는지" 조합 수만큼만 생기고,
+    // 하이버네이트 쿼리 플랜 캐시에서 파싱/변환 결과를 재사용한다.
+    // count 쿼리는 팀 이름 조건이 있을 때만 팀을 조인하고, 필요 없으면 아예 실행하지 않는다. ( PageableExecutionUtils )
+    @Override
+    public Page<MemberTeamDto> search(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = queryFactory
+                .select(new QMemberTeamDto(
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id,
+                        team.name,
+                        member.createdDate))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(searchConditions(condition))
+                .orderBy(orders(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        JPAQuery<Long> countQuery = queryFactory
+                .select(member.count())
+                .from(member)
+                .where(searchConditions(condition));
+        if (StringUtils.hasText(condition.getTeamName())) {
+            countQuery.leftJoin(member.team, team);
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    private BooleanExpression[] searchConditions(MemberSearchCondition condition) {
+        return new BooleanExpression[]{
+                usernameEq(condition.getUsername()),
+                ageGoe(condition.getAgeGoe()),
+                ageLoe(condition.getAgeLoe()),
+                teamNameEq(condition.getTeamName()),
+                createdFrom(condition.getCreatedFrom()),
+                createdTo(condition.getCreatedTo())
+        };
+    }
+
+    private BooleanExpression usernameEq(String username) {
+        return StringUtils.hasText(username) ? member.username.eq(username) : null;
+    }
+
+    private BooleanExpression ageGoe(Integer ageGoe) {
+        return ageGoe != null ? member.age.goe(ageGoe) : null;
+    }
+
+    private BooleanExpression ageLoe(Integer ageLoe) {
+        return ageLoe != null ? member.age.loe(ageLoe) : null;
+    }
+
+    private BooleanExpression teamNameEq(String teamName) {
+        return StringUtils.hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression createdFrom(LocalDateTime createdFrom) {
+        return createdFrom != null ? member.createdDate.goe(createdFrom) : null;
+    }
+
+    private BooleanExpression createdTo(LocalDateTime createdTo) {
+        return createdTo != null ? member.createdDate.lt(createdTo) : null;
+    }
+
+    // 정렬은 id, username, age 만 가능하다. 마지막에 id를 붙여서 순서를 유일하게 만든다.
+    private OrderSpecifier<?>[] orders(Sort sort) {
+        List<OrderSpecifier<?>> orders = new ArrayList<>();
+        boolean hasId = false;
+        for (Sort.Order order : sort) {
+            Order direction = order.isAscending() ? Order.ASC : Order.DESC;
+            switch (order.getProperty()) {
+                case "id" -> {
+                    orders.add(new OrderSpecifier<>(direction, member.id));
+                    hasId = true;
+                }
+                case "username" -> orders.add(new OrderSpecifier<>(direction, member.username));
+                case "age" -> orders.add(new OrderSpecifier<>(direction, member.age));
+                default -> throw new UnsupportedSortException("정렬할 수 없는 속성입니다. property = " + order.getProperty());
+            }
+        }
+        if (!hasId) {
+            orders.add(member.id.asc());
+        }
+        return orders.toArray(OrderSpecifier[]::new);
     }
 }
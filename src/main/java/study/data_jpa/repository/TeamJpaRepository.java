@@ -1,5 +1,6 @@
 package study.data_jpa.repository;
 
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Repository;
@@ -9,6 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Timed("jpa.repository.invocations")
 public class TeamJpaRepository {
 
     @PersistenceContext
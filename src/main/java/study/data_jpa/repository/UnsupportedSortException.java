@@ -0,0 +1,9 @@
+package study.data_jpa.repository;
+
+// 허용하지 않은 정렬 조건 ( 400 Bad Request, ApiExceptionHandler )
+public class UnsupportedSortException extends IllegalArgumentException {
+
+    public UnsupportedSortException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ public interface NestedClosedProjections {
     // 첫번째는 정확히 가져오는 것을 확인 함
     String getUsername();
     // 두번째는 부터는 그냥 엔티티 자체를 가져오게 된다. ( 최적화가 안된다는 말이다. )
+    // findNestedProjectionsByUsername() 으로 조회하면 m.username, t.name 만 조인해서 가져온다. ( MemberRepositoryNestedProjectionImpl )
     TeamInfo getTeam();
 
     interface TeamInfo {
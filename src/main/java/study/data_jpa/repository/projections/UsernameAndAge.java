@@ -0,0 +1,14 @@
+package study.data_jpa.repository.projections;
+
+// 클로즈 프로젝션 + default 메소드
+// UsernameOnly(오픈 프로젝션)와 같은 값을 만들지만, select 절에는 username, age 컬럼만 들어가고
+// SpEL 대신 일반 메소드 호출로 조합하기 때문에 엔티티 전체를 조회하지 않는다.
+// 오픈 프로젝션의 SpEL 은 행마다 새로 파싱되므로 SpEL 컴파일러 설정으로는 빨라지지 않는다. 조합 값은 이쪽을 쓴다.
+public interface UsernameAndAge {
+    String getUsername();
+    int getAge();
+
+    default String getUsernameAndAge() {
+        return getUsername() + " " + getAge();
+    }
+}
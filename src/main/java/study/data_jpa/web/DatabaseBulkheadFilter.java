@@ -0,0 +1,64 @@
+package study.data_jpa.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/***
+ * DB를 사용하는 요청의 동시 실행 수를 커넥션 풀 크기로 제한한다.
+ * 가상 스레드는 요청마다 만들어지므로 톰캣 스레드 수가 더 이상 동시 요청 수를 막아주지 않는다.
+ * OSIV가 켜져 있으면 요청이 끝날 때까지 커넥션을 잡고 있으므로, 요청 단위로 퍼밋을 잡는다.
+ * 정해진 시간 안에 퍼밋을 얻지 못하면 커넥션 풀 대기열에 쌓이지 않고 바로 503을 돌려준다.
+ */
+public class DatabaseBulkheadFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public DatabaseBulkheadFilter(int maxConcurrentRequests, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        if (!acquired) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 헬스 체크, 메트릭, H2 콘솔은 제한하지 않는다.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/actuator") || path.startsWith("/h2-console");
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -1,16 +1,41 @@
 package study.data_jpa;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.scheduling.annotation.EnableAsync;
 
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 @EnableAsync
 class DataJpaApplicationTests {
 
+	@Autowired
+	@Qualifier("applicationTaskExecutor")
+	private Executor applicationTaskExecutor;
+
+	@Autowired
+	@Qualifier("taskExecutor")
+	private Executor taskExecutor;
+
+	@Autowired
+	@Qualifier("pagingExecutor")
+	private Executor pagingExecutor;
+
 	@Test
 	void contextLoads() {
 	}
 
+	// MVC 비동기, @Async 는 페이징 전용 풀이 아닌 공용 실행기를 쓴다.
+	@Test
+	void applicationTaskExecutorIsNotPagingExecutor() {
+		assertThat(taskExecutor).isSameAs(applicationTaskExecutor);
+		assertThat(applicationTaskExecutor).isNotSameAs(pagingExecutor);
+	}
+
 }
@@ -0,0 +1,108 @@
+package study.data_jpa.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/***
+ * /members/export 스트리밍 응답
+ * 클라이언트가 중간에 연결을 끊으면 나머지 회원을 조회하지 않고 멈춰서 커넥션을 반납해야 한다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MemberExportTest {
+
+    // 소켓 버퍼에 모두 들어가지 않을 만큼 충분히 많이 만든다.
+    private static final int MEMBER_COUNT = 20000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @BeforeEach
+    void setUp() {
+        List<Member> members = IntStream.range(0, MEMBER_COUNT)
+                .mapToObj(i -> new Member("member" + i, i % 100, null))
+                .toList();
+        memberRepository.saveAllBatched(members);
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void export() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members/export")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().lines()).hasSize(MEMBER_COUNT)
+                .allMatch(line -> line.startsWith("{\"id\":"));
+        assertThat(response.body()).endsWith("}\n");
+    }
+
+    @Test
+    void exportStopsWhenClientDisconnects() throws Exception {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try (Socket socket = new Socket()) {
+            // 수신 버퍼를 작게 잡아서 서버가 응답을 미리 다 써버리지 못하게 한다.
+            socket.setReceiveBufferSize(1024);
+            socket.connect(new InetSocketAddress("localhost", port));
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /members/export HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            // 응답이 시작된 것( = 스트리밍 중 )을 확인하고 RST 로 바로 끊는다.
+            BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            assertThat(reader.readLine()).startsWith("HTTP/1.1 200");
+            socket.setSoLinger(true, 0);
+        }
+
+        // 요청이 끝나서 커넥션이 반납될 때까지 기다린다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (dataSource.getHikariPoolMXBean().getActiveConnections() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+        // 끊긴 뒤로는 더 읽지 않는다.
+        assertThat(statistics.getEntityLoadCount()).isLessThan(MEMBER_COUNT);
+    }
+}
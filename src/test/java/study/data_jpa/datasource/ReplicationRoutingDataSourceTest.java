@@ -0,0 +1,128 @@
+package study.data_jpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.config.DataSourceConfig;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// replica 프로필 : 라우팅 on, OSIV off, 리플리카는 primary 와 별개인 H2 메모리 DB ( H2ReplicaLinkedTables )
+@SpringBootTest(properties = "app.datasource.routing.read-your-writes-window=0ms")
+@ActiveProfiles("replica")
+class ReplicationRoutingDataSourceTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @AfterEach
+    void clearTransactionState() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        // given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // when & then
+        readOnly.executeWithoutResult(status -> {
+            memberRepository.count();
+            assertThat(replicaDataSource.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(primaryDataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+
+        readWrite.executeWithoutResult(status -> {
+            memberRepository.count();
+            assertThat(primaryDataSource.getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+            assertThat(replicaDataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+        });
+    }
+
+    @Test
+    void readThenWriteGoesToPrimary() {
+        // given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+
+        // when
+        // 한 요청 안에서 읽기 전용 트랜잭션 다음에 쓰기 트랜잭션 ( OSIV 가 꺼져 있어서 트랜잭션마다 커넥션을 다시 라우팅한다. )
+        long before = readOnly.execute(status -> memberRepository.count());
+        Member saved = readWrite.execute(status -> memberRepository.save(new Member("routing1", 10, null)));
+
+        try {
+            // then
+            // 리플리카는 primary 와 다른 DB이고, 링크 테이블은 읽기 전용이라 쓰기가 리플리카로 갔다면 실패했을 것이다.
+            assertThat(primary.queryForObject("select database()", String.class)).isNotEqualTo(
+                    replica.queryForObject("select database()", String.class));
+            assertThat(primary.queryForObject("select count(*) from member where member_id = ?", Long.class, saved.getId()))
+                    .isEqualTo(1L);
+            assertThat(readOnly.execute(status -> memberRepository.count())).isEqualTo(before + 1);
+            assertThatThrownBy(() -> replica.update("delete from member where member_id = ?", saved.getId()))
+                    .isInstanceOf(DataAccessException.class);
+        } finally {
+            readWrite.executeWithoutResult(status -> memberRepository.deleteById(saved.getId()));
+        }
+    }
+
+    @Test
+    void openInViewIsRejected() {
+        // OSIV 가 켜져 있으면 첫 트랜잭션의 커넥션을 요청이 끝날 때까지 잡고 있어서 라우팅이 깨진다.
+        assertThatThrownBy(() -> new DataSourceConfig().dataSource(primaryDataSource, replicaDataSource, Duration.ZERO, true))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void readYourWrites() {
+        // given
+        ReplicationRoutingDataSource routingDataSource = new ReplicationRoutingDataSource(Duration.ofMinutes(1));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object beforeWrite = routingDataSource.determineCurrentLookupKey();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        Object write = routingDataSource.determineCurrentLookupKey();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Object afterWrite = routingDataSource.determineCurrentLookupKey();
+
+        // then
+        // 쓰기 직후의 읽기는 복제 지연을 피하기 위해 primary 로 간다.
+        assertThat(beforeWrite).isEqualTo(DataSourceType.REPLICA);
+        assertThat(write).isEqualTo(DataSourceType.PRIMARY);
+        assertThat(afterWrite).isEqualTo(DataSourceType.PRIMARY);
+    }
+}
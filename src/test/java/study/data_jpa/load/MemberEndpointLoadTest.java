@@ -0,0 +1,108 @@
+package study.data_jpa.load;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import study.data_jpa.entity.Member;
+import study.data_jpa.repository.MemberRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/***
+ * 회원 목록 엔드포인트 부하 테스트 ( 기본 test 태스크에서는 제외 )
+ * - 플랫폼 스레드 : ./gradlew loadTest
+ * - 가상 스레드 : ./gradlew loadTest -PjavaVersion=21 -PvirtualThreads=true
+ * 두 결과의 처리량과 503 비율을 비교한다.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MemberEndpointLoadTest {
+
+    private static final int MEMBER_COUNT = 1000;
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS = 8000;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Member> members = IntStream.range(0, MEMBER_COUNT)
+                .mapToObj(i -> new Member("member" + i, i % 100, null))
+                .toList();
+        memberRepository.saveAllBatched(members);
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void membersPage() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                int page = i % (MEMBER_COUNT / 20);
+                HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/members?page=" + page + "&size=20")).build();
+                futures.add(clients.submit(() -> {
+                    int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status == 200) {
+                        ok.incrementAndGet();
+                    } else if (status == 503) {
+                        rejected.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf("virtualThreads = %s, requests = %d, ok = %d, rejected(503) = %d, failed = %d, elapsed = %dms, throughput = %.1f req/s%n",
+                virtualThreads, REQUESTS, ok.get(), rejected.get(), failed.get(), elapsedMillis,
+                REQUESTS * 1000.0 / Math.max(elapsedMillis, 1));
+
+        assertThat(failed.get()).isZero();
+        assertThat(ok.get() + rejected.get()).isEqualTo(REQUESTS);
+    }
+}
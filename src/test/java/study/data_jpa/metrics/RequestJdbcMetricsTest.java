@@ -0,0 +1,48 @@
+package study.data_jpa.metrics;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.repository.MemberRepository;
+import study.data_jpa.repository.TeamRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class RequestJdbcMetricsTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void countStatementsAndEntities() {
+        // given
+        Team team = teamRepository.save(new Team("teamA"));
+        memberRepository.save(new Member("member1", 10, team));
+        memberRepository.save(new Member("member2", 20, team));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        RequestJdbcMetrics.start();
+        memberRepository.findMemberFetchJoin();
+        RequestJdbcMetrics metrics = RequestJdbcMetrics.finish();
+
+        // then
+        // 회원 2명 + 팀 1개를 fetch join 쿼리 1번으로 읽는다.
+        assertThat(metrics.getStatements()).isEqualTo(1);
+        assertThat(metrics.getEntitiesLoaded()).isEqualTo(3);
+    }
+}
@@ -6,24 +6,33 @@ import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.data_jpa.entity.Member;
+import study.data_jpa.support.QueryCountConfig;
+import study.data_jpa.support.QueryCounter;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @Transactional
+@Import(QueryCountConfig.class)
 class MemberJpaRepositoryTest {
 
     @Autowired
     private MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -129,23 +138,28 @@ class MemberJpaRepositoryTest {
         memberJpaRepository.save(new Member("member3", 10, null));
         memberJpaRepository.save(new Member("member5", 30, null));
 
+        entityManager.flush();
+
         int age = 10;
         int offset = 0;
         int limit = 3;
 
         // when
-        List<Member> result = memberJpaRepository.findByPage(age, offset, limit);
-        long totalCount = memberJpaRepository.totalCount(age);
-        // then
-        assertThat(result).hasSize(3)
-                .extracting("username", "age")
-                .containsExactly(
-                        Tuple.tuple("member4", 10),
-                        Tuple.tuple("member3", 10),
-                        Tuple.tuple("member2", 10)
-                );
-
-        assertThat(totalCount).isEqualTo(4L);
+        // 컨텐츠 쿼리 1번 + count 쿼리 1번
+        QueryCounter.assertAtMost(2, () -> {
+            List<Member> result = memberJpaRepository.findByPage(age, offset, limit);
+            long totalCount = memberJpaRepository.totalCount(age);
+            // then
+            assertThat(result).hasSize(3)
+                    .extracting("username", "age")
+                    .containsExactly(
+                            Tuple.tuple("member4", 10),
+                            Tuple.tuple("member3", 10),
+                            Tuple.tuple("member2", 10)
+                    );
+
+            assertThat(totalCount).isEqualTo(4L);
+        });
     }
 
     @Test
@@ -177,40 +191,91 @@ class MemberJpaRepositoryTest {
     }
 
     @Test
-    public void pagingAsync() throws ExecutionException, InterruptedException {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void pagingParallel() {
         // given
-        memberJpaRepository.save(new Member("member2", 10, null));
-        memberJpaRepository.save(new Member("member1", 10, null));
-        memberJpaRepository.save(new Member("member4", 10, null));
-        memberJpaRepository.save(new Member("member3", 10, null));
-        memberJpaRepository.save(new Member("member5", 30, null));
-
-        entityManager.flush();
+        // 병렬 페이징은 쿼리마다 별도의 커넥션을 사용하기 때문에 커밋된 데이터만 볼 수 있다.
+        transactionTemplate.executeWithoutResult(status -> {
+            memberJpaRepository.save(new Member("member2", 10, null));
+            memberJpaRepository.save(new Member("member1", 10, null));
+            memberJpaRepository.save(new Member("member4", 10, null));
+            memberJpaRepository.save(new Member("member3", 10, null));
+            memberJpaRepository.save(new Member("member5", 30, null));
+        });
+
+        try {
+            int age = 10;
+            PageRequest pageRequest = PageRequest.of(0, 3);
+
+            // when
+            Page<Member> result = memberJpaRepository.findByPageParallel(age, pageRequest);
+
+            // then
+            assertThat(result.getContent()).hasSize(3)
+                    .extracting("username", "age")
+                    .containsExactly(
+                            Tuple.tuple("member4", 10),
+                            Tuple.tuple("member3", 10),
+                            Tuple.tuple("member2", 10)
+                    );
+            assertThat(result.getTotalElements()).isEqualTo(4L);
+            assertThat(result.getTotalPages()).isEqualTo(2);
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    entityManager.createQuery("delete from Member m").executeUpdate());
+        }
+    }
 
-        Thread.sleep(2000);
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void findByNamesParallel() {
+        // given
+        transactionTemplate.executeWithoutResult(status -> {
+            memberJpaRepository.save(new Member("member1", 10, null));
+            memberJpaRepository.save(new Member("member2", 20, null));
+        });
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            names.add("unknown" + i);
+        }
+        names.add("member1");
+        names.add("member2");
+
+        try {
+            // when
+            List<Member> result = memberJpaRepository.findByNamesParallel(names);
+
+            // then
+            assertThat(result).extracting("username")
+                    .containsExactlyInAnyOrder("member1", "member2");
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    entityManager.createQuery("delete from Member m").executeUpdate());
+        }
+    }
 
-        int age = 10;
-        int offset = 0;
-        int limit = 3;
+    @Test
+    void streamAll() {
+        // given
+        Member member1 = memberJpaRepository.save(new Member("member1", 10, null));
+        Member member2 = memberJpaRepository.save(new Member("member2", 20, null));
+        Member member3 = memberJpaRepository.save(new Member("member3", 30, null));
+        entityManager.flush();
+        entityManager.clear();
 
         // when
-        CompletableFuture<List<Member>> resultFuture = memberJpaRepository.findByPageAsync(age, offset, limit);
-        CompletableFuture<Long> totalCountFuture = memberJpaRepository.totalCountAsync(age);
-
-        CompletableFuture.allOf(resultFuture, totalCountFuture).join();
-
-        List<Member> result = resultFuture.get();
-        long totalCount = totalCountFuture.get();
+        List<Member> members = new ArrayList<>();
+        memberJpaRepository.streamAll(2, members::add);
 
         // then
-        assertThat(result).hasSize(3)
-                        .extracting("username", "age")
-                                .containsExactly(
-                                        Tuple.tuple("member4", 10),
-                                        Tuple.tuple("member3", 10),
-                                        Tuple.tuple("member2", 10)
-                                );
-        assertThat(totalCount).isEqualTo(4L);
+        assertThat(members).hasSize(3)
+                .extracting("username")
+                .containsExactlyInAnyOrder("member1", "member2", "member3");
+        // clearSize 마다 영속성 컨텍스트를 비우기 때문에 앞서 읽은 엔티티는 준영속 상태다.
+        assertThat(members.stream().filter(entityManager::contains).count()).isLessThanOrEqualTo(1L);
+        // 2차 캐시에도 올라가지 않는다.
+        assertThat(members).noneMatch(member ->
+                entityManager.getEntityManagerFactory().getCache().contains(Member.class, member.getId()));
     }
 
     @Test
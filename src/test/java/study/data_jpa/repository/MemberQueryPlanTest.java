@@ -0,0 +1,100 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.support.QueryCapture;
+import study.data_jpa.support.QueryCapture.CapturedQuery;
+import study.data_jpa.support.QueryCountConfig;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/***
+ * MemberRepository 조회 쿼리의 실행 계획 확인
+ * 실제로 실행된 SELECT를 모아서 H2 EXPLAIN을 돌리고, 풀 스캔(tableScan)이 있으면 실패한다.
+ * 인덱스( Member @Table(indexes) )를 지우거나 조건을 바꿔서 인덱스를 못 타게 되면 여기서 잡힌다.
+ */
+@SpringBootTest
+@Transactional
+@Import(QueryCountConfig.class)
+class MemberQueryPlanTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        for (int i = 0; i < 20; i++) {
+            memberRepository.save(new Member("member" + i, i % 5, i % 2 == 0 ? teamA : teamB));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void usernameQueries() {
+        assertNoTableScan(() -> memberRepository.findByUsername("member1"));
+        assertNoTableScan(() -> memberRepository.findListByUsername("member1"));
+        assertNoTableScan(() -> memberRepository.findByNames(List.of("member1", "member2")));
+        assertNoTableScan(() -> memberRepository.findLockByUsername("member1"));
+        assertNoTableScan(() -> memberRepository.findByUsernameWithNamedQuery("member1"));
+        assertNoTableScan(() -> memberRepository.findByNativeQuery("member1"));
+        assertNoTableScan(() -> memberJpaRepository.findByUsername("member1"));
+    }
+
+    @Test
+    void ageQueries() {
+        assertNoTableScan(() -> memberJpaRepository.findByPage(1, 0, 3));
+        assertNoTableScan(() -> memberJpaRepository.totalCount(1));
+        assertNoTableScan(() -> memberRepository.findByAge(1, PageRequest.of(0, 3, Sort.by("username"))));
+        assertNoTableScan(() -> memberRepository.findByAgeWithPage(1, PageRequest.of(0, 3, Sort.by("username"))));
+    }
+
+    @Test
+    void teamMembersBatchFetch() {
+        List<Team> teams = teamRepository.findAll();
+
+        // 팀 -> 회원 컬렉션 배치 조회 ( where team_id in (...) )
+        assertNoTableScan(() -> teams.forEach(team -> team.getMembers().size()));
+    }
+
+    private void assertNoTableScan(Runnable query) {
+        List<CapturedQuery> selects = QueryCapture.capture(query).stream()
+                .filter(CapturedQuery::isSelect)
+                .toList();
+        assertThat(selects).as("실행된 SELECT가 없습니다.").isNotEmpty();
+
+        for (CapturedQuery select : selects) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + select.sql(), String.class, select.parameters().toArray());
+            assertThat(plan)
+                    .as("풀 스캔이 발생했습니다.%nSQL : %s%nPLAN : %s", select.sql(), plan)
+                    .doesNotContainIgnoringCase("tableScan");
+        }
+    }
+}
@@ -2,29 +2,49 @@ package study.data_jpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.data_jpa.dto.InvalidCursorException;
+import study.data_jpa.dto.MemberCursor;
 import study.data_jpa.dto.MemberDto;
 import study.data_jpa.dto.MemberMybatisDto;
+import study.data_jpa.dto.MemberSearchCondition;
+import study.data_jpa.dto.MemberTeamDto;
 import study.data_jpa.entity.Member;
 import study.data_jpa.entity.Team;
 import study.data_jpa.repository.projections.MemberProjection;
 import study.data_jpa.repository.projections.NestedClosedProjections;
+import study.data_jpa.repository.projections.UsernameAndAge;
 import study.data_jpa.repository.projections.UsernameOnly;
 import study.data_jpa.repository.projections.UsernameOnlyDto;
+import study.data_jpa.support.QueryCapture;
+import study.data_jpa.support.QueryCapture.CapturedQuery;
+import study.data_jpa.support.QueryCountConfig;
+import study.data_jpa.support.QueryCounter;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.AssertionsForClassTypes.tuple;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 @SpringBootTest
 @Transactional
+@Import(QueryCountConfig.class)
 public class MemberRepositoryTest {
 
     @Autowired
@@ -33,6 +53,9 @@ public class MemberRepositoryTest {
     @Autowired
     private TeamRepository teamRepository;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -170,6 +193,29 @@ public class MemberRepositoryTest {
                 );
     }
     
+    @Test
+    void findMemberDtoByIdCache() {
+        // given
+        Member member = memberRepository.save(new Member("member1", 10, null));
+
+        // when
+        MemberDto first = memberRepository.findMemberDtoById(member.getId()).get();
+        MemberDto cached = memberRepository.findMemberDtoById(member.getId()).get();
+
+        member.changeUsername("member2");
+        memberRepository.save(member);
+        MemberDto afterSave = memberRepository.findMemberDtoById(member.getId()).get();
+
+        memberRepository.deleteAllByIdInBatch(List.of(member.getId()));
+        Optional<MemberDto> afterDelete = memberRepository.findMemberDtoById(member.getId());
+
+        // then
+        assertThat(cached).isSameAs(first);
+        assertThat(afterSave).isNotSameAs(first);
+        assertThat(afterSave.getUsername()).isEqualTo("member2");
+        assertThat(afterDelete).isEmpty();
+    }
+
     @Test
     void findByNames() {
         // given
@@ -188,6 +234,31 @@ public class MemberRepositoryTest {
                 );
     }
 
+    @Test
+    void findByNamesChunked() {
+        // given
+        Member member1 = memberRepository.save(new Member("memberA", 10, null));
+        Member member2 = memberRepository.save(new Member("memberB", 20, null));
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            names.add("unknown" + i);
+        }
+        names.add("memberA");
+        names.add("memberB");
+        names.add("memberA");
+        entityManager.flush();
+
+        // when
+        // 중복을 제거하고 512개씩 나눠서 3번 조회한다.
+        long statements = QueryCounter.countStatements(() -> {
+            List<Member> members = memberRepository.findByNames(names);
+
+            // then
+            assertThat(members).containsExactlyInAnyOrder(member1, member2);
+        });
+        assertThat(statements).isEqualTo(3L);
+    }
+
     @Test
     void returnTypeTest() {
         // given
@@ -252,6 +323,96 @@ public class MemberRepositoryTest {
         assertThat(result.hasNext()).isTrue();
     }
 
+    @Test
+    void findMemberDtoPage() {
+        // given
+        // 팀 3개, 회원 6명
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("team" + i));
+            memberRepository.save(new Member("member" + i + "A", 10, team));
+            memberRepository.save(new Member("member" + i + "B", 10, team));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        PageRequest pageRequest = PageRequest.of(0, 4, Sort.by("username"));
+
+        // when
+        // 엔티티 조회 후 DTO 변환 : 컨텐츠 + count + 팀 지연 로딩
+        long entityStatements = QueryCounter.countStatements(() ->
+                memberRepository.findAll(pageRequest).map(MemberDto::new));
+        entityManager.clear();
+
+        // DTO 직접 조회 : 컨텐츠 + count
+        QueryCounter.assertAtMost(2, () -> {
+            Page<MemberDto> result = memberRepository.findMemberDtoPage(pageRequest);
+
+            // then
+            assertThat(result.getContent()).hasSize(4)
+                    .extracting("username", "teamName")
+                    .containsExactly(
+                            tuple("member0A", "team0"),
+                            tuple("member0B", "team0"),
+                            tuple("member1A", "team1"),
+                            tuple("member1B", "team1")
+                    );
+            assertThat(result.getTotalElements()).isEqualTo(6);
+            // 엔티티를 영속성 컨텍스트에 올리지 않는다.
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        });
+        assertThat(entityStatements).isGreaterThan(2);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void findByAgeWithPageCachedCount() {
+        // given
+        // count 캐시는 커밋 후에 지워지기 때문에 트랜잭션을 직접 나눈다.
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            members.add(new Member("member" + i, 10, null));
+        }
+        members.add(new Member("member5", 20, null));
+        List<Long> ids = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> memberRepository.saveAll(members).forEach(member -> ids.add(member.getId())));
+
+        try {
+            // when
+            // 첫 페이지 : 컨텐츠 + count
+            QueryCounter.assertAtMost(2, () -> {
+                Page<Member> page = memberRepository.findByAgeWithPageCachedCount(10, PageRequest.of(0, 2, Sort.by("username")));
+
+                // then
+                assertThat(page.getContent()).extracting("username").containsExactly("member0", "member1");
+                assertThat(page.getTotalElements()).isEqualTo(5);
+            });
+
+            // 다음 페이지 : count는 캐시에서 가져온다.
+            QueryCounter.assertAtMost(1, () -> {
+                Page<Member> page = memberRepository.findByAgeWithPageCachedCount(10, PageRequest.of(1, 2, Sort.by("username")));
+
+                assertThat(page.getContent()).extracting("username").containsExactly("member2", "member3");
+                assertThat(page.getTotalElements()).isEqualTo(5);
+                assertThat(page.getTotalPages()).isEqualTo(3);
+            });
+
+            // 롤백된 저장은 count 캐시를 지우지 않는다.
+            transactionTemplate.executeWithoutResult(status -> {
+                memberRepository.save(new Member("member6", 10, null));
+                status.setRollbackOnly();
+            });
+            Page<Member> afterRollback = memberRepository.findByAgeWithPageCachedCount(10, PageRequest.of(1, 2, Sort.by("username")));
+            assertThat(afterRollback.getTotalElements()).isEqualTo(5);
+
+            // 커밋되면 count 캐시를 지운다.
+            transactionTemplate.executeWithoutResult(status -> ids.add(memberRepository.save(new Member("member6", 10, null)).getId()));
+            Page<Member> afterCommit = memberRepository.findByAgeWithPageCachedCount(10, PageRequest.of(1, 2, Sort.by("username")));
+            assertThat(afterCommit.getTotalElements()).isEqualTo(6);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> memberRepository.deleteAllByIdInBatch(ids));
+        }
+    }
+
     @Test
     public void slice() {
         // given
@@ -283,6 +444,87 @@ public class MemberRepositoryTest {
         assertThat(result.hasNext()).isTrue();
     }
 
+    @Test
+    void scrollKeyset() {
+        // given
+        memberRepository.save(new Member("member2", 10, null));
+        memberRepository.save(new Member("member1", 10, null));
+        memberRepository.save(new Member("member4", 10, null));
+        memberRepository.save(new Member("member3", 10, null));
+        memberRepository.save(new Member("member5", 30, null));
+
+        Sort sort = Sort.by("username");
+
+        // when
+        Window<Member> first = memberRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(2));
+        // 커서는 인코딩 후 다시 디코딩해도 같은 위치를 가리켜야 한다.
+        String cursor = MemberCursor.encode(first.positionAt(first.size() - 1));
+        Window<Member> second = memberRepository.findAllBy(MemberCursor.decode(cursor, sort), sort, Limit.of(2));
+        Window<Member> last = memberRepository.findAllBy(second.positionAt(second.size() - 1), sort, Limit.of(2));
+
+        // then
+        assertThat(first.getContent()).extracting("username").containsExactly("member1", "member2");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting("username").containsExactly("member3", "member4");
+        assertThat(second.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting("username").containsExactly("member5");
+        assertThat(last.hasNext()).isFalse();
+
+        // 다른 정렬로 발급된 커서, 변조된 커서는 거부한다.
+        assertThatThrownBy(() -> MemberCursor.decode(cursor, Sort.by("id")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> MemberCursor.decode(cursor + "A", sort))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> MemberCursor.decode("not a cursor", sort))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void saveAllBatched() {
+        // given
+        int rows = 1000;
+        Team team = teamRepository.save(new Team("teamA"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            members.add(new Member("batch" + i, i, team));
+        }
+
+        // when
+        // 처리량(rows/sec) 비교는 BatchInsertBenchmark 참조
+        List<Member> saved = memberRepository.saveAllBatched(members, 100);
+
+        // then
+        assertThat(saved).hasSize(rows).allMatch(member -> member.getId() != null);
+        assertThat(entityManager.contains(saved.get(0))).isFalse();
+        assertThat(memberRepository.count()).isEqualTo(rows);
+    }
+
+    @Test
+    void saveAllMybatis() {
+        // given
+        Team team = teamRepository.save(new Team("teamA"));
+        entityManager.flush();
+
+        List<Member> batch = new ArrayList<>();
+        List<Member> multiRow = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            batch.add(new Member("batch" + i, i, i % 2 == 0 ? team : null));
+            multiRow.add(new Member("multi" + i, i, i % 2 == 0 ? team : null));
+        }
+
+        // when
+        int batchCount = memberRepository.saveAllMybatisBatch(batch, 10);
+        int multiRowCount = memberRepository.saveAllMybatisMultiRow(multiRow, 10);
+
+        // then
+        assertThat(batchCount).isEqualTo(25);
+        assertThat(multiRowCount).isEqualTo(25);
+        assertThat(memberRepository.count()).isEqualTo(50L);
+        Member saved = memberRepository.findByUsername("multi0");
+        assertThat(saved.getTeam().getId()).isEqualTo(team.getId());
+        assertThat(saved.getCreatedDate()).isNotNull();
+    }
+
     @Test
     void bulkUpdate() {
         // given
@@ -311,6 +553,130 @@ public class MemberRepositoryTest {
     }
 
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkUpdateChunked() {
+        // given
+        // 청크마다 별도 트랜잭션으로 커밋되기 때문에 테스트 트랜잭션을 쓰지 않는다.
+        List<Member> members = transactionTemplate.execute(status -> memberRepository.saveAll(List.of(
+                new Member("member1", 10, null),
+                new Member("member2", 15, null),
+                new Member("member3", 20, null),
+                new Member("member4", 25, null),
+                new Member("member5", 30, null))));
+
+        jakarta.persistence.Cache secondLevelCache = entityManager.getEntityManagerFactory().getCache();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        try {
+            // 2차 캐시와 쿼리 캐시를 채워둔다.
+            members.forEach(member -> transactionTemplate.executeWithoutResult(status -> memberRepository.findById(member.getId())));
+            transactionTemplate.executeWithoutResult(status -> memberRepository.findByUsername("member1"));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                Member member1 = memberRepository.findById(members.get(0).getId()).get();
+                Member member3 = memberRepository.findById(members.get(2).getId()).get();
+
+                // when
+                int resultCount = memberRepository.bulkAgePlusChunked(20, 2);
+
+                // then
+                assertThat(resultCount).isEqualTo(3);
+                // 수정된 회원만 영속성 컨텍스트에서 빠진다.
+                assertThat(entityManager.contains(member1)).isTrue();
+                assertThat(entityManager.contains(member3)).isFalse();
+                // 2차 캐시도 수정된 회원만 지운다.
+                assertThat(secondLevelCache.contains(Member.class, member1.getId())).isTrue();
+                assertThat(secondLevelCache.contains(Member.class, member3.getId())).isFalse();
+                assertThat(memberRepository.findById(member3.getId()).get().getAge()).isEqualTo(21);
+            });
+
+            // member 테이블의 캐시 쿼리도 무효화되지 않는다.
+            long queryCacheHitCount = statistics.getQueryCacheHitCount();
+            transactionTemplate.executeWithoutResult(status -> memberRepository.findByUsername("member1"));
+            assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(queryCacheHitCount);
+
+            List<Member> result = memberRepository.findAll();
+            assertThat(result).extracting("username", "age")
+                    .containsExactlyInAnyOrder(
+                            Tuple.tuple("member1", 10),
+                            Tuple.tuple("member2", 15),
+                            Tuple.tuple("member3", 21),
+                            Tuple.tuple("member4", 26),
+                            Tuple.tuple("member5", 31));
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> memberRepository.deleteAllInBatch(members));
+        }
+    }
+
+    @Test
+    void bulkUpdateChunked_unflushedChanges() {
+        // given
+        Member member = memberRepository.save(new Member("member1", 20, null));
+        entityManager.flush();
+        member.setAge(30);
+
+        // when & then
+        // detach 로 변경이 사라지지 않도록 청크를 시작하기 전에 막는다.
+        assertThatThrownBy(() -> memberRepository.bulkAgePlusChunked(20, 2))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(entityManager.contains(member)).isTrue();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void secondLevelCache() {
+        // given
+        // 2차 캐시는 커밋된 데이터만 올라가기 때문에 트랜잭션을 직접 나눈다.
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Team team = transactionTemplate.execute(status -> teamRepository.save(new Team("teamA")));
+        Member member = transactionTemplate.execute(status -> memberRepository.save(new Member("member1", 20, team)));
+
+        try {
+            // when
+            long hitCount = statistics.getSecondLevelCacheHitCount();
+            transactionTemplate.executeWithoutResult(status -> teamRepository.findById(team.getId()));
+            transactionTemplate.executeWithoutResult(status -> teamRepository.findById(team.getId()));
+
+            transactionTemplate.executeWithoutResult(status -> memberRepository.findByUsername("member1"));
+            transactionTemplate.executeWithoutResult(status -> memberRepository.bulkAgePlus(20));
+            Member afterBulk = transactionTemplate.execute(status -> memberRepository.findByUsername("member1"));
+
+            // then
+            assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThan(hitCount);
+            // 벌크 연산 후에는 쿼리 캐시와 Member region이 무효화되어 변경된 값을 읽는다.
+            assertThat(afterBulk.getAge()).isEqualTo(21);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                memberRepository.deleteById(member.getId());
+                teamRepository.deleteById(team.getId());
+            });
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void secondLevelCache_mybatisInsert() {
+        // given
+        // 쿼리 캐시에 빈 결과가 올라간 상태
+        Member before = transactionTemplate.execute(status -> memberRepository.findByUsername("mybatis1"));
+        assertThat(before).isNull();
+
+        try {
+            // when
+            // MyBatis insert 는 하이버네이트가 모르기 때문에 커밋 후 쿼리 캐시를 직접 비운다.
+            transactionTemplate.executeWithoutResult(status ->
+                    memberRepository.saveAllMybatisMultiRow(List.of(new Member("mybatis1", 10, null)), 10));
+            Member after = transactionTemplate.execute(status -> memberRepository.findByUsername("mybatis1"));
+
+            // then
+            assertThat(after).isNotNull();
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    entityManager.createQuery("delete from Member m where m.username = 'mybatis1'").executeUpdate());
+        }
+    }
+
     @Test
     void findMemberLazyWithFetchJoin() {
         // given
@@ -330,14 +696,17 @@ public class MemberRepositoryTest {
         entityManager.clear();
 
         // when
-        List<Member> members = memberRepository.findMemberFetchJoin();
-
-        // then
-        for (Member member : members) {
-            System.out.println("member = " + member);
-            System.out.println("member.team.class = " + member.getTeam().getClass());
-            System.out.println("member.team = " + member.getTeam().getName());
-        }
+        // fetch join 으로 팀까지 한 번에 가져오기 때문에 팀을 사용해도 쿼리는 1번만 나가야 한다.
+        QueryCounter.assertAtMost(1, () -> {
+            List<Member> members = memberRepository.findMemberFetchJoin();
+
+            // then
+            for (Member member : members) {
+                System.out.println("member = " + member);
+                System.out.println("member.team.class = " + member.getTeam().getClass());
+                System.out.println("member.team = " + member.getTeam().getName());
+            }
+        });
     }
 
     @Test
@@ -359,14 +728,17 @@ public class MemberRepositoryTest {
         entityManager.clear();
 
         // when
-        List<Member> members = memberRepository.findAll();
-
-        // then
-        for (Member member : members) {
-            System.out.println("member = " + member);
-            System.out.println("member.team.class = " + member.getTeam().getClass());
-            System.out.println("member.team = " + member.getTeam().getName());
-        }
+        // EntityGraph 로 팀까지 한 번에 가져오기 때문에 팀을 사용해도 쿼리는 1번만 나가야 한다.
+        QueryCounter.assertAtMost(1, () -> {
+            List<Member> members = memberRepository.findAll();
+
+            // then
+            for (Member member : members) {
+                System.out.println("member = " + member);
+                System.out.println("member.team.class = " + member.getTeam().getClass());
+                System.out.println("member.team = " + member.getTeam().getName());
+            }
+        });
     }
 
     @Test
@@ -388,14 +760,17 @@ public class MemberRepositoryTest {
         entityManager.clear();
 
         // when
-        List<Member> members = memberRepository.findEntityGraphByUsername("member1");
-
-        // then
-        for (Member member : members) {
-            System.out.println("member = " + member);
-            System.out.println("member.team.class = " + member.getTeam().getClass());
-            System.out.println("member.team = " + member.getTeam().getName());
-        }
+        // EntityGraph 로 팀까지 한 번에 가져오기 때문에 팀을 사용해도 쿼리는 1번만 나가야 한다.
+        QueryCounter.assertAtMost(1, () -> {
+            List<Member> members = memberRepository.findEntityGraphByUsername("member1");
+
+            // then
+            for (Member member : members) {
+                System.out.println("member = " + member);
+                System.out.println("member.team.class = " + member.getTeam().getClass());
+                System.out.println("member.team = " + member.getTeam().getName());
+            }
+        });
     }
 
     @Test
@@ -417,14 +792,17 @@ public class MemberRepositoryTest {
         entityManager.clear();
 
         // when
-        List<Member> members = memberRepository.findMemberEntityGraph();
-
-        // then
-        for (Member member : members) {
-            System.out.println("member = " + member);
-            System.out.println("member.team.class = " + member.getTeam().getClass());
-            System.out.println("member.team = " + member.getTeam().getName());
-        }
+        // EntityGraph 로 팀까지 한 번에 가져오기 때문에 팀을 사용해도 쿼리는 1번만 나가야 한다.
+        QueryCounter.assertAtMost(1, () -> {
+            List<Member> members = memberRepository.findMemberEntityGraph();
+
+            // then
+            for (Member member : members) {
+                System.out.println("member = " + member);
+                System.out.println("member.team.class = " + member.getTeam().getClass());
+                System.out.println("member.team = " + member.getTeam().getName());
+            }
+        });
     }
 
     @Test
@@ -446,14 +824,17 @@ public class MemberRepositoryTest {
         entityManager.clear();
 
         // when
-        List<Member> members = memberRepository.findNamedEntityGraphByUsername("member1");
-
-        // then
-        for (Member member : members) {
-            System.out.println("member = " + member);
-            System.out.println("member.team.class = " + member.getTeam().getClass());
-            System.out.println("member.team = " + member.getTeam().getName());
-        }
+        // EntityGraph 로 팀까지 한 번에 가져오기 때문에 팀을 사용해도 쿼리는 1번만 나가야 한다.
+        QueryCounter.assertAtMost(1, () -> {
+            List<Member> members = memberRepository.findNamedEntityGraphByUsername("member1");
+
+            // then
+            for (Member member : members) {
+                System.out.println("member = " + member);
+                System.out.println("member.team.class = " + member.getTeam().getClass());
+                System.out.println("member.team = " + member.getTeam().getName());
+            }
+        });
     }
 
     @Test
@@ -473,16 +854,19 @@ public class MemberRepositoryTest {
         entityManager.clear();
 
         // when
-        List<Member> members = memberRepository.findMemberFetchJoin();
-
-        assertThat(members).hasSize(1);
-
-        // then
-        for (Member member : members) {
-            System.out.println("member = " + member);
-            System.out.println("member.team.class = " + member.getTeam().getClass());
-            System.out.println("member.team = " + member.getTeam().getName());
-        }
+        // fetch join 은 inner join 이기 때문에 팀이 없는 회원은 빠진다. 쿼리는 1번만 나가야 한다.
+        QueryCounter.assertAtMost(1, () -> {
+            List<Member> members = memberRepository.findMemberFetchJoin();
+
+            assertThat(members).hasSize(1);
+
+            // then
+            for (Member member : members) {
+                System.out.println("member = " + member);
+                System.out.println("member.team.class = " + member.getTeam().getClass());
+                System.out.println("member.team = " + member.getTeam().getName());
+            }
+        });
     }
 
 
@@ -517,6 +901,40 @@ public class MemberRepositoryTest {
         // then
     }
     
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void optimisticLockRetry() {
+        // given
+        Member member = transactionTemplate.execute(status -> memberRepository.save(new Member("member1", 10, null)));
+        assertThat(member.getVersion()).isEqualTo(0L);
+        TransactionTemplate other = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        other.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            // when
+            // 첫 번째 시도 중에 다른 트랜잭션이 먼저 수정하면 version이 맞지 않아 다시 시도한다.
+            Member updated = memberRepository.updateWithRetry(member.getId(), m -> {
+                if (attempts.incrementAndGet() == 1) {
+                    other.executeWithoutResult(status -> memberRepository.findById(member.getId()).get().setAge(20));
+                }
+                m.setAge(m.getAge() + 1);
+            });
+
+            // then
+            assertThat(attempts.get()).isEqualTo(2);
+            assertThat(updated.getAge()).isEqualTo(21);
+            assertThat(updated.getVersion()).isEqualTo(2L);
+
+            // 커밋 후 회원 단건 캐시를 지운다.
+            assertThat(memberRepository.findMemberDtoById(member.getId()).get().getUsername()).isEqualTo("member1");
+            memberRepository.updateWithRetry(member.getId(), m -> m.changeUsername("member2"));
+            assertThat(memberRepository.findMemberDtoById(member.getId()).get().getUsername()).isEqualTo("member2");
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> memberRepository.deleteById(member.getId()));
+        }
+    }
+
     @Test
     void callCustom() {
         // given
@@ -524,6 +942,46 @@ public class MemberRepositoryTest {
         List<Member> result2 = memberRepository.findMemberMybatisCustom();
     }
 
+    @Test
+    void searchQueryDSL() {
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+        memberRepository.save(new Member("member3", 30, teamB));
+        memberRepository.save(new Member("member4", 40, teamB));
+        memberRepository.save(new Member("member5", 50, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(40);
+        condition.setTeamName("teamB");
+
+        // when
+        // 컨텐츠 + count, 엔티티는 영속성 컨텍스트에 올라가지 않는다.
+        QueryCounter.assertAtMost(2, () -> {
+            Page<MemberTeamDto> result = memberRepository.search(condition, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "age")));
+
+            // then
+            assertThat(result.getContent()).extracting("username", "age", "teamName")
+                    .containsExactly(tuple("member4", 40, "teamB"));
+            assertThat(result.getTotalElements()).isEqualTo(2);
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        });
+
+        // 조건이 없으면 전체 ( 팀 없는 회원 포함 )
+        Page<MemberTeamDto> all = memberRepository.search(new MemberSearchCondition(), PageRequest.of(0, 10));
+        assertThat(all.getContent()).extracting("username")
+                .containsExactly("member1", "member2", "member3", "member4", "member5");
+
+        // 화이트리스트에 없는 정렬은 거부한다. ( 400 )
+        assertThatThrownBy(() -> memberRepository.search(new MemberSearchCondition(), PageRequest.of(0, 10, Sort.by("createdDate"))))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+
     @Test
     void jpaEventBaseEntity() throws Exception {
         Member m1 = new Member("member1", 10, null);
@@ -544,6 +1002,39 @@ public class MemberRepositoryTest {
         System.out.println(findM1.getLastModifiedBy());
     }
 
+    @Test
+    void auditingOncePerFlush() throws InterruptedException {
+        // given
+        Team team = teamRepository.save(new Team("teamA"));
+        Member m1 = memberRepository.save(new Member("member1", 10, team));
+        Member m2 = memberRepository.save(new Member("member2", 20, team));
+        entityManager.flush();
+
+        // then
+        // 같은 flush 에서는 시간을 한 번만 구하고, 등록자는 트랜잭션 당 한 번만 구한다.
+        assertThat(m1.getCreatedBy()).isNotNull();
+        assertThat(m1.getCreatedBy()).isEqualTo(m2.getCreatedBy()).isEqualTo(team.getCreatedBy());
+        assertThat(m1.getCreatedDate()).isEqualTo(m2.getCreatedDate()).isEqualTo(team.getCreatedDate());
+        assertThat(m1.getLastModifiedDate()).isEqualTo(m1.getCreatedDate());
+        assertThat(m1.getLastModifiedBy()).isEqualTo(m1.getCreatedBy());
+        int synchronizations = TransactionSynchronizationManager.getSynchronizations().size();
+
+        // when
+        // flush 가 끝나면 다음 flush 는 새 시간을 쓴다.
+        Thread.sleep(10);
+        m1.changeUsername("new-member1");
+        Member m3 = memberRepository.save(new Member("member3", 30, team));
+        entityManager.flush();
+
+        // then
+        assertThat(m1.getLastModifiedBy()).isEqualTo(m1.getCreatedBy());
+        assertThat(m1.getLastModifiedDate()).isAfter(m1.getCreatedDate());
+        assertThat(m3.getCreatedDate()).isEqualTo(m1.getLastModifiedDate());
+        assertThat(m3.getCreatedBy()).isEqualTo(m1.getCreatedBy());
+        // 시간을 다시 구해도 트랜잭션 동기화는 처음 한 번만 등록된다.
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(synchronizations);
+    }
+
     @Test
     void testtest() {
         Member m1 = new Member("member1", 10, null);
@@ -626,6 +1117,25 @@ public class MemberRepositoryTest {
                 );
     }
 
+    @Test
+    void projections_interface_closedWithDefaultMethod() {
+        // given
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+        Member m1 = new Member("member1", 10, teamA);
+        entityManager.persist(m1);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<UsernameAndAge> result = memberRepository.findUsernameAndAgeByUsername("member1");
+
+        // then
+        // 오픈 프로젝션(UsernameOnly)과 같은 값이지만 엔티티를 조회하지 않는다.
+        assertThat(result).extracting("usernameAndAge").containsExactly("member1 10");
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
     @Test
     void projections_class() {
         // given
@@ -699,6 +1209,32 @@ public class MemberRepositoryTest {
         }
     }
 
+    @Test
+    void projections_nested_columnPruned() {
+        // given
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(new Member("member1", 0, teamA));
+        entityManager.persist(new Member("member1", 0, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        List<NestedClosedProjections> result = new ArrayList<>();
+        List<CapturedQuery> queries = QueryCapture.capture(() ->
+                result.addAll(memberRepository.findNestedProjectionsByUsername("member1", NestedClosedProjections.class)));
+
+        // then
+        // 조인 한 번에 프로젝션 값만 가져오고 엔티티(Member, Team)는 영속성 컨텍스트에 올라가지 않는다.
+        assertThat(queries).hasSize(1);
+        assertThat(queries.get(0).sql()).doesNotContainIgnoringCase("age");
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+
+        assertThat(result).extracting(NestedClosedProjections::getUsername).containsOnly("member1");
+        assertThat(result).extracting(projections -> projections.getTeam() == null ? null : projections.getTeam().getName())
+                .containsExactlyInAnyOrder("teamA", null);
+    }
+
     @Test
     void nativeQuery() {
         // given
@@ -739,6 +1275,40 @@ public class MemberRepositoryTest {
             System.out.println(memberProjection.getUsername());
             System.out.println(memberProjection.getTeamName());
         }
+
+        // then
+        // on 절이 없으면 회원 x 팀 카티션 곱이 된다.
+        assertThat(content).extracting("username", "teamName")
+                .containsExactly(tuple("member1", "teamA"), tuple("member2", "teamA"));
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void nativeQuery_pageableSort() {
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        teamRepository.save(new Team("teamB"));
+        memberRepository.save(new Member("member2", 0, teamA));
+        memberRepository.save(new Member("member1", 0, null));
+        memberRepository.save(new Member("member3", 0, teamA));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        Page<MemberProjection> result = memberRepository.findByNativeProjection(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username")));
+
+        // then
+        assertThat(result.getContent()).extracting("username", "teamName")
+                .containsExactly(tuple("member3", "teamA"), tuple("member2", "teamA"));
+        assertThat(result.getTotalElements()).isEqualTo(3);
+
+        // 인덱스가 없는 컬럼, 방향이 섞인 정렬은 거부한다.
+        assertThatThrownBy(() -> memberRepository.findByNativeProjection(PageRequest.of(0, 2, Sort.by("age"))))
+                .isInstanceOf(UnsupportedSortException.class);
+        assertThatThrownBy(() -> memberRepository.findByNativeProjection(
+                PageRequest.of(0, 2, Sort.by(Sort.Order.asc("username"), Sort.Order.desc("id")))))
+                .isInstanceOf(UnsupportedSortException.class);
     }
 
 
@@ -0,0 +1,58 @@
+package study.data_jpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.data_jpa.dto.TeamDto;
+import study.data_jpa.entity.Member;
+import study.data_jpa.entity.Team;
+import study.data_jpa.support.QueryCountConfig;
+import study.data_jpa.support.QueryCounter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+@Import(QueryCountConfig.class)
+class TeamRepositoryTest {
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void pagingWithBatchFetch() {
+        // given
+        // 팀 60개, 팀마다 회원 2명
+        for (int i = 0; i < 60; i++) {
+            Team team = teamRepository.save(new Team("team" + i));
+            memberRepository.save(new Member("member" + i + "-1", i, team));
+            memberRepository.save(new Member("member" + i + "-2", i, team));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        // 팀 50개 페이지 : 팀 1번 + count 1번 + 회원(IN 절) 1번
+        QueryCounter.assertAtMost(3, () -> {
+            Page<TeamDto> page = teamRepository.findAll(PageRequest.of(0, 50, Sort.by("id"))).map(TeamDto::new);
+
+            // then
+            assertThat(page.getContent()).hasSize(50);
+            assertThat(page.getTotalElements()).isEqualTo(60);
+            assertThat(page.getContent()).allSatisfy(team -> assertThat(team.getMembers()).hasSize(2));
+        });
+    }
+}
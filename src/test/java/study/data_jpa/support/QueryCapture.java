@@ -0,0 +1,68 @@
+package study.data_jpa.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/***
+ * 블록 안에서 실행된 SQL과 바인딩 파라미터를 모은다. ( QueryCountConfig 가 등록된 테스트에서만 동작한다. )
+ * 실행 계획(EXPLAIN) 확인용이다. ( MemberQueryPlanTest 참조 )
+ */
+public final class QueryCapture {
+
+    private static final ThreadLocal<List<CapturedQuery>> CAPTURED = new ThreadLocal<>();
+
+    static final QueryExecutionListener LISTENER = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<CapturedQuery> captured = CAPTURED.get();
+            if (captured == null) {
+                return;
+            }
+            for (QueryInfo queryInfo : queryInfoList) {
+                List<Object> parameters = queryInfo.getParametersList().isEmpty()
+                        ? List.of()
+                        : parameters(queryInfo.getParametersList().get(0));
+                captured.add(new CapturedQuery(queryInfo.getQuery(), parameters));
+            }
+        }
+    };
+
+    private QueryCapture() {
+    }
+
+    public static List<CapturedQuery> capture(Runnable block) {
+        List<CapturedQuery> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            block.run();
+            return captured;
+        } finally {
+            CAPTURED.remove();
+        }
+    }
+
+    // setXxx(index, value) 호출을 index 순서대로 값만 꺼낸다. ( setNull 은 null )
+    private static List<Object> parameters(List<ParameterSetOperation> operations) {
+        return operations.stream()
+                .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                .map(operation -> "setNull".equals(operation.getMethod().getName()) ? null : operation.getArgs()[1])
+                .toList();
+    }
+
+    public record CapturedQuery(String sql, List<Object> parameters) {
+
+        public boolean isSelect() {
+            return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package study.data_jpa.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/***
+ * 테스트용 DataSource 프록시
+ * 애플리케이션이 사용하는 dataSource 를 감싸서 실행된 SQL 수를 세고, 필요하면 SQL을 모은다. ( QueryCounter, QueryCapture 참조 )
+ * 사용법 : 테스트 클래스에 @Import(QueryCountConfig.class)
+ */
+@TestConfiguration
+public class QueryCountConfig {
+
+    private static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor queryCountDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && DATA_SOURCE_BEAN_NAME.equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name("query-count")
+                            .countQuery()
+                            .listener(QueryCapture.LISTENER)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package study.data_jpa.support;
+
+import net.ttddyy.dsproxy.QueryCountHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/***
+ * 블록 안에서 실행된 SQL 수 확인 ( QueryCountConfig 가 등록된 테스트에서만 동작한다. )
+ * N + 1 문제가 다시 생기면 테스트가 실패하도록 쿼리 수 예산을 건다.
+ *
+ * QueryCounter.assertAtMost(1, () -> {
+ *     List<Member> members = memberRepository.findMemberFetchJoin();
+ *     members.forEach(member -> member.getTeam().getName());
+ * });
+ *
+ * 주의 : 블록 안에서 일어나는 flush(insert, update)도 함께 센다. 측정 전에 flush, clear 해두는 것이 좋다.
+ */
+public final class QueryCounter {
+
+    private QueryCounter() {
+    }
+
+    public static long countStatements(Runnable block) {
+        QueryCountHolder.clear();
+        try {
+            block.run();
+            return QueryCountHolder.getGrandTotal().getTotal();
+        } finally {
+            QueryCountHolder.clear();
+        }
+    }
+
+    public static void assertAtMost(long maxStatements, Runnable block) {
+        long statements = countStatements(block);
+        assertThat(statements)
+                .as("SQL 실행 수가 예산(%d)을 넘었습니다.", maxStatements)
+                .isLessThanOrEqualTo(maxStatements);
+    }
+}